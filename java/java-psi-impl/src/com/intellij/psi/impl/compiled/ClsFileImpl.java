@@ -28,6 +28,8 @@ import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.progress.NonCancelableSection;
 import com.intellij.openapi.progress.ProgressIndicatorProvider;
 import com.intellij.openapi.ui.Queryable;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.pom.java.LanguageLevel;
 import com.intellij.psi.*;
@@ -63,6 +65,12 @@ public class ClsFileImpl extends ClsRepositoryPsiElement<PsiClassHolderFileStub>
                          implements PsiJavaFile, PsiFileWithStubSupport, PsiFileEx, Queryable, PsiClassOwnerEx, PsiCompiledFile {
   private static final Logger LOG = Logger.getInstance("#com.intellij.psi.impl.compiled.ClsFileImpl");
 
+  /**
+   * Decompiled text along with the modification stamp of the class file it was built from. The text is built from stubs only,
+   * so it doesn't depend on a project and is shared by all the ClsFileImpl instances (and documents) of the file.
+   */
+  private static final Key<SoftReference<Pair<Long, String>>> DECOMPILED_TEXT_KEY = Key.create("ClsFileImpl.DECOMPILED_TEXT_KEY");
+
   /** NOTE: you absolutely MUST NOT hold PsiLock under the mirror lock */
   private final Object myMirrorLock = new Object();
   private final Object myStubLock = new Object();
@@ -377,6 +385,18 @@ public class ClsFileImpl extends ClsRepositoryPsiElement<PsiClassHolderFileStub>
   }
 
   public static String decompile(PsiManager manager, VirtualFile file) {
+    long stamp = file.getModificationStamp();
+    Pair<Long, String> cached = dereference(file.getUserData(DECOMPILED_TEXT_KEY));
+    if (cached != null && cached.first == stamp) {
+      return cached.second;
+    }
+
+    String text = doDecompile(manager, file);
+    file.putUserData(DECOMPILED_TEXT_KEY, new SoftReference<Pair<Long, String>>(Pair.create(stamp, text)));
+    return text;
+  }
+
+  private static String doDecompile(PsiManager manager, VirtualFile file) {
     ClsFileImpl psiFile = null;
 
     final FileViewProvider provider = ((PsiManagerEx)manager).getFileManager().findViewProvider(file);
@@ -40,14 +40,11 @@ import java.text.StringCharacterIterator;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * @author max
  */
 public class StubBuildingVisitor<T> extends ClassVisitor {
-  private static final Pattern REGEX_PATTERN = Pattern.compile("(?<=[^\\$\\.])\\${1}(?=[^\\$])"); // disallow .$ or $$
-
   public static final String DOUBLE_POSITIVE_INF = "1.0 / 0.0";
   public static final String DOUBLE_NEGATIVE_INF = "-1.0 / 0.0";
   public static final String DOUBLE_NAN = "0.0d / 0.0";
@@ -308,7 +305,8 @@ public class StubBuildingVisitor<T> extends ClassVisitor {
     if (!isCorrectName(innerName)) return;
 
     if (innerName == null || outerName == null) return;
-    if ((getClassName(outerName) + "." + innerName).equals(myResult.getQualifiedName())) {
+    String outerClassName = getClassName(outerName);
+    if ((outerClassName + "." + innerName).equals(myResult.getQualifiedName())) {
       // Our result is inner class
 
       if (myParent instanceof PsiFileStub) {
@@ -316,7 +314,7 @@ public class StubBuildingVisitor<T> extends ClassVisitor {
       }
     }
 
-    if (!getClassName(outerName).equals(myResult.getQualifiedName())) return;
+    if (!outerClassName.equals(myResult.getQualifiedName())) return;
 
     final T innerSource = myInnersStrategy.findInnerClass(innerName, mySource);
     if (innerSource == null) return;
@@ -771,6 +769,19 @@ public class StubBuildingVisitor<T> extends ClassVisitor {
     // Heuristic: replace only those $ occurrences that are surrounded non-"$" chars
     //   (most likely generated by javac to separate inner or anonymous class name)
     //   Leading and trailing $ chars should be left unchanged.
-    return raw.indexOf('$') >= 0 ? REGEX_PATTERN.matcher(raw).replaceAll("\\.") : raw;
+    // Same as replacing "(?<=[^\\$\\.])\\$(?=[^\\$])" with ".", but without a regex: type names are converted a lot while indexing.
+    if (raw.indexOf('$') < 0) return raw;
+
+    char[] chars = raw.toCharArray();
+    for (int i = 1; i < chars.length - 1; i++) {
+      if (chars[i] == '$') {
+        char prev = raw.charAt(i - 1);
+        char next = raw.charAt(i + 1);
+        if (prev != '$' && prev != '.' && next != '$') {
+          chars[i] = '.';
+        }
+      }
+    }
+    return new String(chars);
   }
 }
@@ -155,6 +155,31 @@ public class PsiBuilderTest extends LightIdeaTestCase {
     assertNull(leaf.getFirstChildNode());
   }
 
+  public void testRecycledMarkersAreNotCollapsed() throws Exception {
+    myBuilder = createBuilder("package");
+    PsiBuilder.Marker fileMarker = myBuilder.mark();
+    PsiBuilder.Marker packageStatementMarker = myBuilder.mark();
+    myBuilder.advanceLexer();
+    packageStatementMarker.collapse(JavaElementType.PACKAGE_STATEMENT);
+    fileMarker.done(JavaStubElementTypes.JAVA_FILE);
+    assertNotNull(myBuilder.getTreeBuilt());
+
+    myBuilder = createBuilder("package");
+    fileMarker = myBuilder.mark();
+    packageStatementMarker = myBuilder.mark();
+    myBuilder.advanceLexer();
+    packageStatementMarker.done(JavaElementType.PACKAGE_STATEMENT);
+    fileMarker.done(JavaStubElementTypes.JAVA_FILE);
+
+    ASTNode fileNode = myBuilder.getTreeBuilt();
+    ASTNode packageNode = fileNode.getFirstChildNode();
+    assertNotNull(packageNode);
+    assertEquals(JavaElementType.PACKAGE_STATEMENT, packageNode.getElementType());
+    ASTNode leaf = packageNode.getFirstChildNode();
+    assertNotNull(leaf);
+    assertEquals(JavaTokenType.PACKAGE_KEYWORD, leaf.getElementType());
+  }
+
   public void testAdvanceBeyondEof() {
     myBuilder = createBuilder("package");
     for(int i=0; i<20; i++) {
@@ -355,6 +355,15 @@ public class DirectoryIndexTest extends IdeaTestCase {
     checkInfoNull(output2);
   }
 
+  public void testRootsChangeWithoutRootModelChangesKeepsIndex() throws Exception {
+    DirectoryInfo info = checkInfoNotNull(mySrcDir1);
+
+    fireRootsChanged();
+
+    assertSame(info, myIndex.getInfoForDirectory(mySrcDir1));
+    myIndex.checkConsistency();
+  }
+
   private void fireRootsChanged() {
     ProjectRootManagerEx.getInstanceEx(getProject()).makeRootsChange(EmptyRunnable.getInstance(), false, true);
   }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2000-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.intellij.psi;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.impl.source.tree.JavaElementType;
+import com.intellij.psi.impl.source.tree.TreeUtil;
+import com.intellij.testFramework.LightCodeInsightTestCase;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.util.ThrowableRunnable;
+
+/**
+ * Edits outside of code blocks (e.g. in field initializers) are reparsed on the file level, check that such reparse
+ * does not expand method bodies which were not changed.
+ */
+public class JavaFullReparsePerformanceTest extends LightCodeInsightTestCase {
+  private static final int METHODS_COUNT = 2000;
+
+  public void testFieldInitializerChangeInLongClass() throws Exception {
+    StringBuilder text = new StringBuilder("class A {\n  int field = 0;\n");
+    for (int i = 0; i < METHODS_COUNT; i++) {
+      text.append("  void m").append(i).append("(int p) {\n    int x = p + ").append(i).append(";\n    System.out.println(x);\n  }\n");
+    }
+    text.append("}\n");
+    configureFromFileText("A.java", text.toString());
+
+    final Document document = getEditor().getDocument();
+    final int offset = document.getText().indexOf("= 0;") + 2;
+
+    PlatformTestUtil.startPerformanceTest("Full reparse of " + document.getLineCount() + " lines", 1000, new ThrowableRunnable() {
+      @Override
+      public void run() throws Exception {
+        ApplicationManager.getApplication().runWriteAction(new Runnable() {
+          @Override
+          public void run() {
+            document.insertString(offset, "1");
+            PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+            document.deleteString(offset, offset + 1);
+            PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+          }
+        });
+      }
+    }).cpuBound().assertTiming();
+
+    PsiClass aClass = ((PsiJavaFile)getFile()).getClasses()[0];
+    PsiMethod[] methods = aClass.getMethods();
+    assertEquals(METHODS_COUNT, methods.length);
+    ASTNode body = methods[METHODS_COUNT - 1].getNode().findChildByType(JavaElementType.CODE_BLOCK);
+    assertNotNull(body);
+    assertTrue(TreeUtil.isCollapsedChameleon(body));
+  }
+}
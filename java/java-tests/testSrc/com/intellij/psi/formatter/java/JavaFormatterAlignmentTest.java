@@ -15,9 +15,18 @@
  */
 package com.intellij.psi.formatter.java;
 
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.CommandProcessor;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileTypes.StdFileTypes;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.codeStyle.CodeStyleManager;
 import com.intellij.psi.codeStyle.CommonCodeStyleSettings;
 import com.intellij.util.IncorrectOperationException;
+import org.jetbrains.annotations.NotNull;
 
 /**
  * Is intended to hold specific java formatting tests for alignment settings (
@@ -27,6 +36,7 @@ import com.intellij.util.IncorrectOperationException;
  * @since Apr 27, 2010 6:42:00 PM
  */
 public class JavaFormatterAlignmentTest extends AbstractJavaFormatterTest {
+  private static final String ADDED_MARKER = "<added>";
 
   public void testChainedMethodsAlignment() throws Exception {
     // Inspired by IDEA-30369
@@ -301,4 +311,100 @@ public class JavaFormatterAlignmentTest extends AbstractJavaFormatterTest {
                  "try (MyResource r1 = null;\n" +
                  "        MyResource r2 = null) { }");
   }
+
+  public void testAlignNewlyAddedCallArgument() throws Exception {
+    // The alignment anchor of the added argument belongs to the first argument, i.e. lies outside of the added element.
+    getSettings().ALIGN_MULTILINE_PARAMETERS_IN_CALLS = true;
+    doNewlyAddedElementTest(
+      "class Foo {\n" +
+      "    void foo() {\n" +
+      "        bar(baz(1,\n" +
+      "                2),\n" +
+      "            3,\n" +
+      "<added>4);\n" +
+      "    }\n" +
+      "}",
+      "class Foo {\n" +
+      "    void foo() {\n" +
+      "        bar(baz(1,\n" +
+      "                2),\n" +
+      "            3,\n" +
+      "            4);\n" +
+      "    }\n" +
+      "}"
+    );
+  }
+
+  public void testAlignNewlyAddedChainedCall() throws Exception {
+    // The alignment anchor of the added call is the first chained call which lies deep inside of the qualifier subtree.
+    getSettings().ALIGN_MULTILINE_CHAINED_METHODS = true;
+    doNewlyAddedElementTest(
+      "class Foo {\n" +
+      "    void foo() {\n" +
+      "        new StringBuilder().append(\"a\")\n" +
+      "                           .append(\"b\")\n" +
+      "<added>.append(\"c\");\n" +
+      "    }\n" +
+      "}",
+      "class Foo {\n" +
+      "    void foo() {\n" +
+      "        new StringBuilder().append(\"a\")\n" +
+      "                           .append(\"b\")\n" +
+      "                           .append(\"c\");\n" +
+      "    }\n" +
+      "}"
+    );
+  }
+
+  public void testAlignNewlyAddedFieldName() throws Exception {
+    // The alignment of field names is shared by the whole group of fields, i.e. it is owned by the class block.
+    getSettings().ALIGN_GROUP_FIELD_DECLARATIONS = true;
+    doNewlyAddedElementTest(
+      "class Foo {\n" +
+      "    int    a = 1;\n" +
+      "    String b = \"b\";\n" +
+      "    long <added>c = 3;\n" +
+      "}",
+      "class Foo {\n" +
+      "    int    a = 1;\n" +
+      "    String b = \"b\";\n" +
+      "    long   c = 3;\n" +
+      "}"
+    );
+  }
+
+  /**
+   * Formats white spaces around the element which starts at the {@code <added>} marker as if that element was just added
+   * to its parent and checks that the result is the same as the one of the whole file formatting.
+   */
+  private void doNewlyAddedElementTest(@NotNull String text, @NotNull final String textAfter) {
+    final int offset = text.indexOf(ADDED_MARKER);
+    assertTrue(offset >= 0);
+    final PsiFile file = createFile("A.java", text.substring(0, offset) + text.substring(offset + ADDED_MARKER.length()));
+    final Document document = PsiDocumentManager.getInstance(getProject()).getDocument(file);
+    assertNotNull(document);
+
+    CommandProcessor.getInstance().executeCommand(getProject(), new Runnable() {
+      @Override
+      public void run() {
+        ApplicationManager.getApplication().runWriteAction(new Runnable() {
+          @Override
+          public void run() {
+            PsiElement added = file.findElementAt(offset);
+            assertNotNull(added);
+            while (added.getParent().getTextRange().getStartOffset() == offset) {
+              added = added.getParent();
+            }
+            ASTNode addedNode = added.getNode();
+            CodeStyleManager.getInstance(getProject()).reformatNewlyAddedElement(addedNode.getTreeParent(), addedNode);
+          }
+        });
+      }
+    }, "", "");
+
+    assertEquals(textAfter, document.getText());
+
+    // Formatting of the whole file is expected to produce the same result.
+    doTextTest(textAfter, textAfter);
+  }
 }
@@ -98,29 +98,46 @@ public class PsiBuilderImpl extends UserDataHolderBase implements PsiBuilder {
   private Map<Key, Object> myUserData = null;
   private IElementType myCachedTokenType;
 
-  private final LimitedPool<StartMarker> START_MARKERS = new LimitedPool<StartMarker>(2000, new LimitedPool.ObjectFactory<StartMarker>() {
+  /**
+   * Marker pools are shared by all the builders working at the same thread, so that parsing of many files in a row
+   * (e.g. during indexing) reuses marker objects instead of allocating them anew for every file. Nested parsing
+   * (e.g. of chameleons during reparse) is fine as the pools only hand out markers which were recycled.
+   */
+  private static final ThreadLocal<MarkerPools> ourMarkerPools = new ThreadLocal<MarkerPools>() {
     @Override
-    public StartMarker create() {
-      return new StartMarker();
+    protected MarkerPools initialValue() {
+      return new MarkerPools();
     }
+  };
 
-    @Override
-    public void cleanup(final StartMarker startMarker) {
-      startMarker.clean();
-    }
-  });
+  private static class MarkerPools {
+    private final LimitedPool<StartMarker> startMarkers = new LimitedPool<StartMarker>(2000, new LimitedPool.ObjectFactory<StartMarker>() {
+      @Override
+      public StartMarker create() {
+        return new StartMarker();
+      }
 
-  private final LimitedPool<DoneMarker> DONE_MARKERS = new LimitedPool<DoneMarker>(2000, new LimitedPool.ObjectFactory<DoneMarker>() {
-    @Override
-    public DoneMarker create() {
-      return new DoneMarker();
-    }
+      @Override
+      public void cleanup(final StartMarker startMarker) {
+        startMarker.clean();
+      }
+    });
 
-    @Override
-    public void cleanup(final DoneMarker doneMarker) {
-      doneMarker.clean();
-    }
-  });
+    private final LimitedPool<DoneMarker> doneMarkers = new LimitedPool<DoneMarker>(2000, new LimitedPool.ObjectFactory<DoneMarker>() {
+      @Override
+      public DoneMarker create() {
+        return new DoneMarker();
+      }
+
+      @Override
+      public void cleanup(final DoneMarker doneMarker) {
+        doneMarker.clean();
+      }
+    });
+  }
+
+  private final LimitedPool<StartMarker> START_MARKERS;
+  private final LimitedPool<DoneMarker> DONE_MARKERS;
 
   private static final WhitespacesAndCommentsBinder DEFAULT_LEFT_EDGE_TOKEN_BINDER = new WhitespacesAndCommentsBinder() {
     @Override
@@ -164,6 +181,10 @@ public class PsiBuilderImpl extends UserDataHolderBase implements PsiBuilder {
     myProject = project;
     myFile = containingFile;
 
+    MarkerPools pools = ourMarkerPools.get();
+    START_MARKERS = pools.startMarkers;
+    DONE_MARKERS = pools.doneMarkers;
+
     myText = text;
     myTextArray = CharArrayUtil.fromSequenceWithoutCopying(text);
     myLexer = lexer;
@@ -577,6 +598,7 @@ public class PsiBuilderImpl extends UserDataHolderBase implements PsiBuilder {
     public void clean() {
       super.clean();
       myStart = null;
+      myCollapse = false;
       myEdgeTokenBinder = DEFAULT_RIGHT_EDGE_TOKEN_BINDER;
     }
 
@@ -847,7 +869,7 @@ public class PsiBuilderImpl extends UserDataHolderBase implements PsiBuilder {
     final DoneMarker doneMarker = ((StartMarker)marker).myDoneMarker;
     if (doneMarker != null) {
       myProduction.remove(myProduction.lastIndexOf(doneMarker));
-      DONE_MARKERS.recycle(doneMarker);
+      recycleDoneMarker(doneMarker);
     }
     final boolean removed = myProduction.remove(myProduction.lastIndexOf(marker)) == marker;
     if (!removed) {
@@ -988,12 +1010,19 @@ public class PsiBuilderImpl extends UserDataHolderBase implements PsiBuilder {
           START_MARKERS.recycle((StartMarker)marker);
         }
         else if (marker instanceof DoneMarker) {
-          DONE_MARKERS.recycle((DoneMarker)marker);
+          recycleDoneMarker((DoneMarker)marker);
         }
       }
     }
   }
 
+  private void recycleDoneMarker(@NotNull DoneMarker marker) {
+    // error markers carry a message and are not allocated from the pool, so they are not returned to it either
+    if (!(marker instanceof DoneWithErrorMarker)) {
+      DONE_MARKERS.recycle(marker);
+    }
+  }
+
   private ASTNode buildTree() {
     final StartMarker rootMarker = prepareLightTree();
     final boolean isTooDeep = myFile != null && BlockSupport.isTooDeep(myFile.getOriginalFile());
@@ -33,10 +33,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ref.Reference;
+import java.util.ArrayList;
 import java.util.Enumeration;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -48,6 +48,7 @@ public class JarHandlerBase {
 
   private final TimedReference<JarFile> myJarFile = new TimedReference<JarFile>(null);
   private Reference<Map<String, EntryInfo>> myRelPathsToEntries = new SoftReference<Map<String, EntryInfo>>(null);
+  private Reference<Map<EntryInfo, String[]>> myChildrenNames = new SoftReference<Map<EntryInfo, String[]>>(null);
   private final Object lock = new Object();
 
   protected final String myBasePath;
@@ -71,6 +72,7 @@ public class JarHandlerBase {
   protected void clear() {
     synchronized (lock) {
       myRelPathsToEntries = null;
+      myChildrenNames = null;
       myJarFile.set(null);
     }
   }
@@ -94,6 +96,7 @@ public class JarHandlerBase {
           }
 
           myRelPathsToEntries = new SoftReference<Map<String, EntryInfo>>(map);
+          myChildrenNames = null;
         }
       }
       return map;
@@ -228,16 +231,43 @@ public class JarHandlerBase {
   public String[] list(@NotNull final VirtualFile file) {
     synchronized (lock) {
       EntryInfo parentEntry = getEntryInfo(file);
+      if (parentEntry == null) return ArrayUtil.EMPTY_STRING_ARRAY;
 
-      Set<String> names = new HashSet<String>();
-      for (EntryInfo info : getEntriesMap().values()) {
-        if (info.parent == parentEntry) {
-          names.add(info.shortName);
+      String[] names = getChildrenNames().get(parentEntry);
+      return names != null ? names.clone() : ArrayUtil.EMPTY_STRING_ARRAY;
+    }
+  }
+
+  /**
+   * Groups the names of all the entries by their parents, so that listing a directory doesn't require a pass over the whole jar.
+   * Must be called under the lock; dropped together with the entries map it was built from.
+   */
+  @NotNull
+  private Map<EntryInfo, String[]> getChildrenNames() {
+    Map<EntryInfo, String[]> result = myChildrenNames != null ? myChildrenNames.get() : null;
+    if (result == null) {
+      Map<String, EntryInfo> entries = getEntriesMap();
+
+      Map<EntryInfo, List<String>> children = new THashMap<EntryInfo, List<String>>();
+      for (EntryInfo info : entries.values()) {
+        if (info.parent == null) continue;
+        List<String> names = children.get(info.parent);
+        if (names == null) {
+          names = new ArrayList<String>();
+          children.put(info.parent, names);
         }
+        names.add(info.shortName);
       }
 
-      return ArrayUtil.toStringArray(names);
+      result = new THashMap<EntryInfo, String[]>(children.size());
+      for (Map.Entry<EntryInfo, List<String>> entry : children.entrySet()) {
+        result.put(entry.getKey(), ArrayUtil.toStringArray(entry.getValue()));
+      }
+      if (myRelPathsToEntries != null && myRelPathsToEntries.get() == entries) {
+        myChildrenNames = new SoftReference<Map<EntryInfo, String[]>>(result);
+      }
     }
+    return result;
   }
 
   protected EntryInfo getEntryInfo(@NotNull VirtualFile file) {
@@ -277,7 +277,8 @@ public class BlockSupportImpl extends BlockSupport {
                                    @NotNull final ShallowNodeComparator<ASTNode, T> comparator,
                                    @NotNull final FlyweightCapableTreeStructure<T> newTreeStructure,
                                    final ProgressIndicator indicator) {
-    TreeUtil.ensureParsedRecursivelyCheckingProgress(oldRoot, indicator);
+    // Do not expand collapsed chameleons of the old tree beforehand: the comparators match them by text and DiffTree expands only
+    // the nodes it has to drill into, so the bodies that were not changed (and never viewed) stay unparsed
     DiffTree.diff(createInterruptibleASTStructure(oldRoot, indicator), newTreeStructure, comparator, builder);
   }
 
@@ -146,10 +146,13 @@ public class LibraryDependencyDataService extends AbstractDependencyDataService<
           }
         }
 
-        for (DataNode<LibraryDependencyData> dependencyNode : nodesToImport) {
-          final ModifiableRootModel moduleRootModel = moduleRootManager.getModifiableModel();
-          try {
-            libraryTable = myPlatformFacade.getProjectLibraryTable(module.getProject());
+        // All dependencies of the module are configured via a single model, so that roots change is fired once per module
+        // instead of once per dependency.
+        final ModifiableRootModel moduleRootModel = moduleRootManager.getModifiableModel();
+        try {
+          // We need to get the most up-to-date Library object due to our project model restrictions.
+          libraryTable = myPlatformFacade.getProjectLibraryTable(module.getProject());
+          for (DataNode<LibraryDependencyData> dependencyNode : nodesToImport) {
             final LibraryDependencyData dependencyData = dependencyNode.getData();
             toRemove.remove(dependencyData.getName());
             final Library library = libraryTable.getLibraryByName(dependencyData.getName());
@@ -159,7 +162,6 @@ public class LibraryDependencyDataService extends AbstractDependencyDataService<
             }
             LibraryOrderEntry orderEntry = myProjectStructureHelper.findIdeLibraryDependency(dependencyData.getName(), moduleRootModel);
             if (orderEntry == null) {
-              // We need to get the most up-to-date Library object due to our project model restrictions.
               orderEntry = moduleRootModel.addLibraryEntry(library);
               LOG.info(String.format("Adding library dependency '%s' to module '%s'", library.getName(), module.getName()));
             }
@@ -170,9 +172,9 @@ public class LibraryDependencyDataService extends AbstractDependencyDataService<
               library.getName(), module.getName(), dependencyData.isExported() ? " not" : "", dependencyData.getScope()
             ));
           }
-          finally {
-            moduleRootModel.commit();
-          }
+        }
+        finally {
+          moduleRootModel.commit();
         }
 
         if (!toRemove.isEmpty()) {
@@ -22,6 +22,7 @@ import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.application.ReadActionProcessor;
 import com.intellij.openapi.application.Result;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressIndicatorProvider;
@@ -195,7 +196,11 @@ public class PsiSearchHelperImpl implements PsiSearchHelper {
     }
 
     String text = searcher.getPattern();
-    List<VirtualFile> fileSet = getFilesWithText(scope, searchContext, caseSensitively, text, progress);
+    long start = System.currentTimeMillis();
+    List<VirtualFile> fileSet = rankCandidateFiles(getFilesWithText(scope, searchContext, caseSensitively, text, progress));
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Found " + fileSet.size() + " candidate files for '" + text + "' in " + (System.currentTimeMillis() - start) + "ms");
+    }
 
     if (progress != null) {
       progress.setText(PsiBundle.message("psi.search.for.word.progress", text));
@@ -309,6 +314,45 @@ public class PsiSearchHelperImpl implements PsiSearchHelper {
     });
   }
 
+  /**
+   * Orders candidate files so that the ones the user is most likely interested in are processed (and their usages reported) first:
+   * files which documents are already loaded (e.g. opened in editors), then project sources, then everything else (libraries etc).
+   * Files are processed concurrently in chunks taken in the list order, so the order only affects how early results appear.
+   */
+  @NotNull
+  private List<VirtualFile> rankCandidateFiles(@NotNull final Collection<VirtualFile> files) {
+    if (files.size() < 2) {
+      return new ArrayList<VirtualFile>(files);
+    }
+    return ApplicationManager.getApplication().runReadAction(new Computable<List<VirtualFile>>() {
+      @Override
+      public List<VirtualFile> compute() {
+        final FileDocumentManager documentManager = FileDocumentManager.getInstance();
+        final FileIndexFacade index = FileIndexFacade.getInstance(myManager.getProject());
+        final List<VirtualFile> loaded = new ArrayList<VirtualFile>();
+        final List<VirtualFile> sources = new ArrayList<VirtualFile>();
+        final List<VirtualFile> others = new ArrayList<VirtualFile>(files.size());
+        for (VirtualFile file : files) {
+          if (!file.isValid()) {
+            others.add(file);
+          }
+          else if (documentManager.getCachedDocument(file) != null) {
+            loaded.add(file);
+          }
+          else if (index.isInSourceContent(file)) {
+            sources.add(file);
+          }
+          else {
+            others.add(file);
+          }
+        }
+        loaded.addAll(sources);
+        loaded.addAll(others);
+        return loaded;
+      }
+    });
+  }
+
   @NotNull
   private List<VirtualFile> getFilesWithText(@NotNull GlobalSearchScope scope,
                                              final short searchContext,
@@ -634,7 +678,12 @@ public class PsiSearchHelperImpl implements PsiSearchHelper {
       progress.setText(PsiBundle.message("psi.scanning.files.progress"));
     }
 
+    long start = System.currentTimeMillis();
     final MultiMap<VirtualFile, RequestWithProcessor> candidateFiles = collectFiles(singles, progress);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Found " + candidateFiles.size() + " candidate files for " + singles.size() + " word sets in " +
+                (System.currentTimeMillis() - start) + "ms");
+    }
 
     if (candidateFiles.isEmpty()) {
       return AsyncFutureFactory.wrap(true);
@@ -652,7 +701,7 @@ public class PsiSearchHelperImpl implements PsiSearchHelper {
     }
 
     final AsyncFuture<Boolean> result =
-      processPsiFileRootsAsync(new ArrayList<VirtualFile>(candidateFiles.keySet()), new Processor<PsiElement>() {
+      processPsiFileRootsAsync(rankCandidateFiles(candidateFiles.keySet()), new Processor<PsiElement>() {
         @Override
         public boolean process(final PsiElement psiRoot) {
           TooManyUsagesStatus.getFrom(progress).pauseProcessingIfTooManyUsages();
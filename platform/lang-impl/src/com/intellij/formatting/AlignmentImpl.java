@@ -68,6 +68,11 @@ class AlignmentImpl extends Alignment {
     myParentAlignment = (AlignmentImpl)base;
   }
 
+  @Nullable
+  AlignmentImpl getParent() {
+    return myParentAlignment;
+  }
+
   /**
    * Selects target wrapped block by the following algorithm:
    * <ol>
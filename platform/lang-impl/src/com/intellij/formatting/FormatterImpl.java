@@ -32,12 +32,15 @@ import com.intellij.psi.formatter.FormattingDocumentModelImpl;
 import com.intellij.psi.formatter.PsiBasedFormattingModel;
 import com.intellij.util.IncorrectOperationException;
 import com.intellij.util.SequentialTask;
+import com.intellij.util.containers.Stack;
 import com.intellij.util.text.CharArrayUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -316,6 +319,51 @@ public class FormatterImpl extends FormatterEx
     }
   }
 
+  /**
+   * Calculates the range of blocks to wrap in order to format white spaces of the given range. Blocks that don't intersect
+   * the returned range are represented as read-only leaf blocks whose sub-blocks are not wrapped, so the range covers all
+   * blocks that share an alignment (directly or via {@link AlignmentImpl#getParent() parent alignment}) with the blocks
+   * of the given range. Otherwise an alignment anchor which lies inside of a sibling or an outer block would be lost.
+   * <p/>
+   * Note that the whole blocks tree is traversed here, but only the blocks from the returned range are wrapped and processed.
+   *
+   * @param rootBlock  root block of the formatting model
+   * @param range      range which white spaces are to be formatted
+   * @return           range to use as an affected range during blocks wrapping
+   */
+  @NotNull
+  private static TextRange getAffectedRange(@NotNull Block rootBlock, @NotNull TextRange range) {
+    Set<Alignment> alignments = new HashSet<Alignment>();
+    Stack<Block> blocks = new Stack<Block>();
+    blocks.push(rootBlock);
+    while (!blocks.isEmpty()) {
+      Block block = blocks.pop();
+      TextRange blockRange = block.getTextRange();
+      if (blockRange.getStartOffset() > range.getEndOffset() || blockRange.getEndOffset() <= range.getStartOffset()) {
+        continue;
+      }
+      for (Alignment alignment = block.getAlignment(); alignment != null && alignments.add(alignment); ) {
+        alignment = alignment instanceof AlignmentImpl ? ((AlignmentImpl)alignment).getParent() : null;
+      }
+      blocks.addAll(block.getSubBlocks());
+    }
+    if (alignments.isEmpty()) {
+      return range;
+    }
+
+    TextRange result = range;
+    blocks.push(rootBlock);
+    while (!blocks.isEmpty()) {
+      Block block = blocks.pop();
+      Alignment alignment = block.getAlignment();
+      if (alignment != null && alignments.contains(alignment)) {
+        result = result.union(block.getTextRange());
+      }
+      blocks.addAll(block.getSubBlocks());
+    }
+    return result;
+  }
+
   @Override
   public void formatAroundRange(final FormattingModel model,
                                 final CodeStyleSettings settings,
@@ -325,8 +373,14 @@ public class FormatterImpl extends FormatterEx
     try {
       final FormattingDocumentModel documentModel = model.getDocumentModel();
       final Block block = model.getRootBlock();
+      // Only white spaces adjacent to the given range are modified below, so there is no point in wrapping blocks
+      // that lie far from it. Restricting the affected range makes block wrapper build only the blocks that intersect the range
+      // and represent the rest of the document as read-only leaf blocks.
+      final TextRange affectedRange = getAffectedRange(block, new TextRange(
+        textRange.getStartOffset(), Math.min(textRange.getEndOffset() + 1, documentModel.getTextLength())
+      ));
       final FormatProcessor processor = buildProcessorAndWrapBlocks(
-        documentModel, block, settings, settings.getIndentOptions(fileType), null
+        documentModel, block, settings, settings.getIndentOptions(fileType), new FormatTextRanges(affectedRange, true)
       );
       LeafBlockWrapper tokenBlock = processor.getFirstTokenBlock();
       while (tokenBlock != null) {
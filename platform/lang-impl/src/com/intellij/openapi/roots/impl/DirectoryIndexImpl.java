@@ -74,6 +74,7 @@ public class DirectoryIndexImpl extends DirectoryIndex {
   private final DirectoryIndexExcludePolicy[] myExcludePolicies;
 
   private volatile IndexState myState = new IndexState();
+  private volatile List<Object> myRootsFingerprint;
   private volatile boolean myInitialized = false;
   private volatile boolean myDisposed = false;
   private final PackageSink mySink = new PackageSink();
@@ -139,7 +140,12 @@ public class DirectoryIndexImpl extends DirectoryIndex {
     myConnection.subscribe(ProjectTopics.PROJECT_ROOTS, new ModuleRootAdapter() {
       @Override
       public void rootsChanged(ModuleRootEvent event) {
-        doInitialize();
+        List<Object> fingerprint = calcRootsFingerprint();
+        if (fingerprint.equals(myRootsFingerprint)) {
+          LOG.debug("Roots are not changed, directory index is kept");
+          return;
+        }
+        doInitialize(fingerprint);
       }
     });
 
@@ -444,9 +450,79 @@ public class DirectoryIndexImpl extends DirectoryIndex {
   }
 
   private void doInitialize() {
+    doInitialize(calcRootsFingerprint());
+  }
+
+  private void doInitialize(@NotNull List<Object> rootsFingerprint) {
     IndexState newState = new IndexState();
     newState.doInitialize(false);
     replaceState(newState);
+    myRootsFingerprint = rootsFingerprint;
+  }
+
+  /**
+   * Collects everything the index is built from: modules, their content, source and exclude roots, order entries with their roots
+   * and exclude policies' verdicts. Many roots change events (e.g. fired for SDK or library tables, or by a reimport which resulted
+   * in the same model) don't affect any of these, and the index needn't be rebuilt for them.
+   * Order entries are compared by identity since {@link DirectoryInfo} refers to them.
+   */
+  @NotNull
+  private List<Object> calcRootsFingerprint() {
+    List<Object> result = new ArrayList<Object>();
+    for (Module module : ModuleManager.getInstance(myProject).getModules()) {
+      result.add(module);
+      for (ContentEntry contentEntry : getContentEntries(module)) {
+        result.add(contentEntry.getUrl());
+        result.add(contentEntry.getFile());
+        for (SourceFolder sourceFolder : contentEntry.getSourceFolders()) {
+          result.add(sourceFolder.getFile());
+          result.add(sourceFolder.getPackagePrefix());
+          result.add(sourceFolder.isTestSource());
+        }
+        for (ExcludeFolder excludeFolder : contentEntry.getExcludeFolders()) {
+          VirtualFile excludeRootFile = excludeFolder.getFile();
+          result.add(excludeFolder.getUrl());
+          result.add(excludeRootFile);
+          result.add(excludeRootFile != null && isExcludeRootForModule(module, excludeRootFile));
+        }
+      }
+      for (OrderEntry orderEntry : getOrderEntries(module)) {
+        result.add(new IdentityWrapper(orderEntry));
+        if (orderEntry instanceof ModuleOrderEntry) {
+          Module depModule = ((ModuleOrderEntry)orderEntry).getModule();
+          if (depModule != null) {
+            result.add(Arrays.asList(OrderEnumerator.orderEntries(depModule).exportedOnly().recursively().classes().usingCache().getRoots()));
+          }
+          result.add(Arrays.asList(orderEntry.getFiles(OrderRootType.SOURCES)));
+        }
+        else if (orderEntry instanceof LibraryOrSdkOrderEntry) {
+          result.add(Arrays.asList(((LibraryOrSdkOrderEntry)orderEntry).getRootFiles(OrderRootType.CLASSES)));
+          result.add(Arrays.asList(((LibraryOrSdkOrderEntry)orderEntry).getRootFiles(OrderRootType.SOURCES)));
+        }
+      }
+    }
+    for (DirectoryIndexExcludePolicy policy : myExcludePolicies) {
+      result.add(Arrays.asList(policy.getExcludeRootsForProject()));
+    }
+    return result;
+  }
+
+  private static class IdentityWrapper {
+    private final Object myObject;
+
+    private IdentityWrapper(@NotNull Object object) {
+      myObject = object;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof IdentityWrapper && ((IdentityWrapper)o).myObject == myObject;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(myObject);
+    }
   }
 
   private boolean isExcludeRootForModule(@NotNull Module module, VirtualFile excludeRoot) {
@@ -38,6 +38,9 @@ public class ChangeList {
 
   private int myIntervalBetweenActivities = 12 * 60 * 60 * 1000; // 12 hours
 
+  // id of the newest change set removed by purgeObsolete(); iterators must not read the storage past it
+  private long myLastPurgedChangeSetId = -1;
+
   public ChangeList(ChangeListStorage storage) {
     myStorage = storage;
   }
@@ -145,7 +148,13 @@ public class ChangeList {
             }
             else {
               synchronized (ChangeList.this) {
-                currentBlock = myStorage.readPrevious(currentBlock.id, recursionGuard);
+                // the current block and all the older ones may have been purged since the previous step
+                if (currentBlock.changeSet.getId() <= myLastPurgedChangeSetId) {
+                  currentBlock = null;
+                }
+                else {
+                  currentBlock = myStorage.readPrevious(currentBlock.id, recursionGuard);
+                }
               }
             }
             if (currentBlock == null) return null;
@@ -174,6 +183,7 @@ public class ChangeList {
   public synchronized void purgeObsolete(long period) {
     myStorage.purge(period, myIntervalBetweenActivities, new Consumer<ChangeSet>() {
       public void consume(ChangeSet changeSet) {
+        myLastPurgedChangeSetId = Math.max(myLastPurgedChangeSetId, changeSet.getId());
         for (Content each : changeSet.getContentsToPurge()) {
           each.release();
         }
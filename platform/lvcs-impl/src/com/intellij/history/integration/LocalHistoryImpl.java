@@ -16,6 +16,7 @@
 
 package com.intellij.history.integration;
 
+import com.intellij.concurrency.JobScheduler;
 import com.intellij.history.*;
 import com.intellij.history.core.*;
 import com.intellij.history.core.tree.RootEntry;
@@ -38,6 +39,8 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 import java.io.File;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class LocalHistoryImpl extends LocalHistory implements ApplicationComponent {
@@ -50,6 +53,10 @@ public class LocalHistoryImpl extends LocalHistory implements ApplicationCompone
   private final AtomicBoolean isInitialized = new AtomicBoolean();
   private Runnable myShutdownTask;
 
+  private static final int PURGE_INTERVAL_HOURS = 6;
+  private final Object myPurgeLock = new Object();
+  private ScheduledFuture<?> myPurgeFuture;
+
   public static LocalHistoryImpl getInstanceImpl() {
     return (LocalHistoryImpl)getInstance();
   }
@@ -68,6 +75,33 @@ public class LocalHistoryImpl extends LocalHistory implements ApplicationCompone
 
     initHistory();
     isInitialized.set(true);
+
+    if (!ApplicationManager.getApplication().isUnitTestMode()) {
+      // the history is purged on shutdown as well, but without this it grows unboundedly while the IDE is running for weeks
+      myPurgeFuture = JobScheduler.getScheduler().scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+            @Override
+            public void run() {
+              purgeObsolete();
+            }
+          });
+        }
+      }, PURGE_INTERVAL_HOURS, PURGE_INTERVAL_HOURS, TimeUnit.HOURS);
+    }
+  }
+
+  private void purgeObsolete() {
+    synchronized (myPurgeLock) {
+      if (!isInitialized()) return;
+      LocalHistoryLog.LOG.info("Purging local history...");
+      myChangeList.purgeObsolete(getPeriodToKeep());
+    }
+  }
+
+  private static long getPeriodToKeep() {
+    return Registry.intValue("localHistory.daysToKeep") * 1000L * 60 * 60 * 24;
   }
 
   protected void initHistory() {
@@ -128,7 +162,10 @@ public class LocalHistoryImpl extends LocalHistory implements ApplicationCompone
   public void disposeComponent() {
     if (!isInitialized.getAndSet(false)) return;
 
-    int period = Registry.intValue("localHistory.daysToKeep") * 1000 * 60 * 60 * 24;
+    if (myPurgeFuture != null) {
+      myPurgeFuture.cancel(false);
+      myPurgeFuture = null;
+    }
 
     VirtualFileManager fm = VirtualFileManager.getInstance();
     fm.removeVirtualFileListener(myEventDispatcher);
@@ -136,12 +173,14 @@ public class LocalHistoryImpl extends LocalHistory implements ApplicationCompone
     CommandProcessor.getInstance().removeCommandListener(myEventDispatcher);
 
 
-    validateStorage();
-    LocalHistoryLog.LOG.info("Purging local history...");
-    myChangeList.purgeObsolete(period);
-    validateStorage();
+    synchronized (myPurgeLock) {
+      validateStorage();
+      LocalHistoryLog.LOG.info("Purging local history...");
+      myChangeList.purgeObsolete(getPeriodToKeep());
+      validateStorage();
 
-    myChangeList.close();
+      myChangeList.close();
+    }
     LocalHistoryLog.LOG.info("Local history storage successfully closed.");
 
     ShutDownTracker.getInstance().unregisterShutdownTask(myShutdownTask);
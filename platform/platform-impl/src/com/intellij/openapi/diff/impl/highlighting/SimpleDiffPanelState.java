@@ -41,6 +41,7 @@ public abstract class SimpleDiffPanelState implements Disposable  {
   protected final EditorPlaceHolder myAppender2;
   protected FragmentList myFragmentList = FragmentList.EMPTY;
   protected final Project myProject;
+  private TextCompareProcessor myProcessor;
 
   public SimpleDiffPanelState(Project project, ContentChangeListener changeListener, @NotNull Disposable parentDisposable) {
     myAppender1 = createEditorWrapper(project, changeListener, FragmentSide.SIDE1);
@@ -58,10 +59,12 @@ public abstract class SimpleDiffPanelState implements Disposable  {
   
   public void setComparisonPolicy(ComparisonPolicy comparisonPolicy) {
     myComparisonPolicy = comparisonPolicy;
+    myProcessor = null;
   }
 
   public void setDiffPolicy(DiffPolicy diffPolicy) {
     myDiffPolicy = diffPolicy;
+    myProcessor = null;
   }
 
   public DiffPolicy getDiffPolicy() {
@@ -105,7 +108,10 @@ public abstract class SimpleDiffPanelState implements Disposable  {
       return LineBlocks.EMPTY;
     }
 
-    return addMarkup(new TextCompareProcessor(myComparisonPolicy, myDiffPolicy).process(myAppender1.getText(), myAppender2.getText()));
+    if (myProcessor == null) {
+      myProcessor = new TextCompareProcessor(myComparisonPolicy, myDiffPolicy);
+    }
+    return addMarkup(myProcessor.process(myAppender1.getText(), myAppender2.getText()));
   }
 
   public Project getProject() { return myProject; }
@@ -23,15 +23,21 @@ import com.intellij.openapi.diff.impl.fragments.LineFragment;
 import com.intellij.openapi.diff.impl.highlighting.FragmentSide;
 import com.intellij.openapi.diff.impl.highlighting.LineBlockDivider;
 import com.intellij.openapi.diff.impl.highlighting.Util;
+import com.intellij.openapi.util.Pair;
 import com.intellij.util.diff.FilesTooBigForDiffException;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 public class TextCompareProcessor {
   private static final Logger LOG = Logger.getInstance("#com.intellij.openapi.diff.impl.processing.Processor");
   private final DiffPolicy myDiffPolicy;
   @NotNull private final ComparisonPolicy myComparisonPolicy;
+  // by word results of the previous run, so that a rediff after an edit refines only the blocks which have changed
+  private Map<Pair<String, String>, ArrayList<LineFragment>> mySubFragmentsCache = Collections.emptyMap();
 
   public TextCompareProcessor(@NotNull ComparisonPolicy comparisonPolicy, final DiffPolicy diffPolicy) {
     myComparisonPolicy = comparisonPolicy;
@@ -47,14 +53,21 @@ public class TextCompareProcessor {
     DiffFragment[] step1lineFragments = new DiffCorrection.TrueLineBlocks(myComparisonPolicy).
         correctAndNormalize(woFormattingBlocks);
     ArrayList<LineFragment> lineBlocks = new DiffFragmentsProcessor().process(step1lineFragments);
+    Map<Pair<String, String>, ArrayList<LineFragment>> subFragmentsCache = new HashMap<Pair<String, String>, ArrayList<LineFragment>>();
     for (LineFragment lineBlock : lineBlocks) {
       if (lineBlock.isOneSide() || lineBlock.isEqual()) continue;
       String subText1 = lineBlock.getText(text1, FragmentSide.SIDE1);
       String subText2 = lineBlock.getText(text2, FragmentSide.SIDE2);
-      ArrayList<LineFragment> subFragments = findSubFragments(subText1, subText2);
+      Pair<String, String> key = Pair.create(subText1, subText2);
+      ArrayList<LineFragment> subFragments = mySubFragmentsCache.get(key);
+      if (subFragments == null) {
+        subFragments = findSubFragments(subText1, subText2);
+      }
+      subFragmentsCache.put(key, subFragments);
       lineBlock.setChildren(new ArrayList<Fragment>(subFragments));
       lineBlock.adjustTypeFromChildrenTypes();
     }
+    mySubFragmentsCache = subFragmentsCache;
     return lineBlocks;
   }
 
@@ -1024,6 +1024,29 @@ public class FSRecords implements Forceable {
     }
   }
 
+  /**
+   * Bulk version of {@link #getNameId(int)}: reads name ids of all the given records under a single lock.
+   */
+  @NotNull
+  public static int[] getNameIds(@NotNull int[] ids) {
+    try {
+      r.lock();
+      try {
+        int[] result = ArrayUtil.newIntArray(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+          result[i] = getRecordInt(ids[i], NAME_OFFSET);
+        }
+        return result;
+      }
+      finally {
+        r.unlock();
+      }
+    }
+    catch (Throwable e) {
+      throw DbConnection.handleError(e);
+    }
+  }
+
   public static int getNameId(String name) {
     try {
       r.lock();
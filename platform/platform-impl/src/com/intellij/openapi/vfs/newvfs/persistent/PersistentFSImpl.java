@@ -158,9 +158,10 @@ public class PersistentFSImpl extends PersistentFS implements ApplicationCompone
 
   @NotNull
   private static String[] listPersisted(@NotNull int[] childrenIds) {
+    int[] nameIds = FSRecords.getNameIds(childrenIds);
     String[] names = ArrayUtil.newStringArray(childrenIds.length);
     for (int i = 0; i < childrenIds.length; i++) {
-      names[i] = FSRecords.getName(childrenIds[i]);
+      names[i] = FSRecords.getNameByNameId(nameIds[i]);
     }
     return names;
   }
@@ -411,16 +412,17 @@ public class PersistentFSImpl extends PersistentFS implements ApplicationCompone
     if (children.length > 0) {
       // fast path, check that some child has same nameId as given name, this avoid O(N) on retrieving names for processing non-cached children
       int nameId = FSRecords.getNameId(childName);
-      for (final int childId : children) {
-        if (nameId == FSRecords.getNameId(childId)) {
-          return childId;
+      int[] childrenNameIds = FSRecords.getNameIds(children);
+      for (int i = 0; i < children.length; i++) {
+        if (nameId == childrenNameIds[i]) {
+          return children[i];
         }
       }
       // for case sensitive system the above check is exhaustive in consistent state of vfs
-    }
 
-    for (final int childId : children) {
-      if (namesEqual(fs, childName, FSRecords.getName(childId))) return childId;
+      for (int i = 0; i < children.length; i++) {
+        if (namesEqual(fs, childName, FSRecords.getNameByNameId(childrenNameIds[i]))) return children[i];
+      }
     }
 
     final VirtualFile fake = new FakeVirtualFile(parent, childName);
@@ -15,6 +15,8 @@
  */
 package com.intellij.openapi.vfs.newvfs.persistent;
 
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.util.Comparing;
 import com.intellij.openapi.util.Pair;
@@ -28,14 +30,17 @@ import com.intellij.openapi.vfs.newvfs.NewVirtualFileSystem;
 import com.intellij.openapi.vfs.newvfs.events.*;
 import com.intellij.openapi.vfs.newvfs.impl.FakeVirtualFile;
 import com.intellij.openapi.vfs.newvfs.impl.VirtualDirectoryImpl;
+import com.intellij.util.concurrency.BoundedTaskExecutor;
 import com.intellij.util.containers.Queue;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.ide.PooledThreadExecutor;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static com.intellij.openapi.diagnostic.LogUtil.debug;
 import static com.intellij.util.containers.ContainerUtil.newHashSet;
@@ -46,6 +51,11 @@ import static com.intellij.util.containers.ContainerUtil.newHashSet;
 public class RefreshWorker {
   private static final Logger LOG = Logger.getInstance("#com.intellij.openapi.vfs.newvfs.persistent.RefreshWorker");
 
+  private static final int PARALLEL_ATTRIBUTES_THRESHOLD = 100;
+  private static final int ATTRIBUTES_CHUNK_SIZE = 50;
+  private static final BoundedTaskExecutor ourAttributesExecutor =
+    new BoundedTaskExecutor(new PooledThreadExecutor(), Runtime.getRuntime().availableProcessors());
+
   private final boolean myIsRecursive;
   private final Queue<Pair<NewVirtualFile, FileAttributes>> myRefreshQueue = new Queue<Pair<NewVirtualFile, FileAttributes>>(100);
   private final List<VFileEvent> myEvents = new ArrayList<VFileEvent>();
@@ -122,9 +132,15 @@ public class RefreshWorker {
             scheduleDeletion(file.findChild(name));
           }
 
+          List<VirtualFile> newChildren = new ArrayList<VirtualFile>(newNames.size());
           for (String name : newNames) {
+            newChildren.add(new FakeVirtualFile(file, name));
+          }
+          FileAttributes[] newAttributes = getAttributes(fs, newChildren);
+          for (int i = 0; i < newChildren.size(); i++) {
             if (myCancelled) break main;
-            FileAttributes childAttributes = fs.getAttributes(new FakeVirtualFile(file, name));
+            String name = newChildren.get(i).getName();
+            FileAttributes childAttributes = newAttributes[i];
             if (childAttributes != null) {
               scheduleCreation(file, name, childAttributes.isDirectory());
             }
@@ -133,26 +149,34 @@ public class RefreshWorker {
             }
           }
 
+          List<VirtualFile> children = new ArrayList<VirtualFile>();
           for (VirtualFile child : file.getChildren()) {
-            if (myCancelled) break main;
             if (!deletedNames.contains(child.getName())) {
-              FileAttributes childAttributes = fs.getAttributes(child);
-              if (childAttributes != null) {
-                checkAndScheduleChildRefresh(file, child, childAttributes);
-              }
-              else {
-                LOG.warn("fs=" + fs + " dir=" + file + " name=" + child.getName());
-                scheduleDeletion(child);
-              }
+              children.add(child);
+            }
+          }
+          FileAttributes[] childrenAttributes = getAttributes(fs, children);
+          for (int i = 0; i < children.size(); i++) {
+            if (myCancelled) break main;
+            VirtualFile child = children.get(i);
+            FileAttributes childAttributes = childrenAttributes[i];
+            if (childAttributes != null) {
+              checkAndScheduleChildRefresh(file, child, childAttributes);
+            }
+            else {
+              LOG.warn("fs=" + fs + " dir=" + file + " name=" + child.getName());
+              scheduleDeletion(child);
             }
           }
         }
         else {
-          Collection<VirtualFile> cachedChildren = file.getCachedChildren();
+          List<VirtualFile> cachedChildren = new ArrayList<VirtualFile>(file.getCachedChildren());
           debug(LOG, "cached=%s", cachedChildren);
-          for (VirtualFile child : cachedChildren) {
+          FileAttributes[] cachedAttributes = getAttributes(fs, cachedChildren);
+          for (int i = 0; i < cachedChildren.size(); i++) {
             if (myCancelled) break main;
-            FileAttributes childAttributes = fs.getAttributes(child);
+            VirtualFile child = cachedChildren.get(i);
+            FileAttributes childAttributes = cachedAttributes[i];
             if (childAttributes != null) {
               checkAndScheduleChildRefresh(file, child, childAttributes);
             }
@@ -206,6 +230,58 @@ public class RefreshWorker {
     }
   }
 
+  /**
+   * Returns attributes of the given files, in the same order. Big directories are split into chunks which are
+   * queried concurrently: a scan of such directories is dominated by the latency of stat calls, not by the CPU.
+   * This is done only for background scans; on the EDT and in a write action attributes are queried sequentially.
+   * An element is {@code null} if a file doesn't exist or the worker has been cancelled.
+   */
+  @NotNull
+  private FileAttributes[] getAttributes(@NotNull final NewVirtualFileSystem fs, @NotNull final List<VirtualFile> files) {
+    final FileAttributes[] result = new FileAttributes[files.size()];
+    Application application = ApplicationManager.getApplication();
+    // a synchronous refresh runs in a write action on the EDT, which must not wait for tasks queued in a shared pool
+    if (result.length < PARALLEL_ATTRIBUTES_THRESHOLD || application.isDispatchThread() || application.isWriteAccessAllowed()) {
+      getAttributes(fs, files, result, 0, result.length);
+      return result;
+    }
+
+    List<Future<?>> chunks = new ArrayList<Future<?>>();
+    for (int start = 0; start < result.length; start += ATTRIBUTES_CHUNK_SIZE) {
+      final int from = start;
+      final int to = Math.min(start + ATTRIBUTES_CHUNK_SIZE, result.length);
+      chunks.add(ourAttributesExecutor.submit(new Runnable() {
+        @Override
+        public void run() {
+          getAttributes(fs, files, result, from, to);
+        }
+      }));
+    }
+    for (Future<?> chunk : chunks) {
+      try {
+        chunk.get();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      }
+      catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+        if (cause instanceof Error) throw (Error)cause;
+        throw new RuntimeException(cause);
+      }
+    }
+    return result;
+  }
+
+  private void getAttributes(@NotNull NewVirtualFileSystem fs, @NotNull List<VirtualFile> files, @NotNull FileAttributes[] result,
+                             int from, int to) {
+    for (int i = from; i < to && !myCancelled; i++) {
+      result[i] = fs.getAttributes(files.get(i));
+    }
+  }
+
   private void checkAndScheduleChildRefresh(@NotNull VirtualFile parent,
                                             @NotNull VirtualFile child,
                                             @NotNull FileAttributes childAttributes) {
@@ -16,9 +16,17 @@
 
 package com.intellij.history.core.changes;
 
+import com.intellij.history.core.ChangeList;
+import com.intellij.history.core.ChangeSetHolder;
+import com.intellij.history.core.InMemoryChangeListStorage;
+import com.intellij.history.core.LocalHistoryFacade;
 import com.intellij.history.core.tree.RootEntry;
+import com.intellij.util.Consumer;
+import gnu.trove.TIntHashSet;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 public class ChangeListTest extends ChangeListTestCase {
@@ -173,4 +181,55 @@ public class ChangeListTest extends ChangeListTestCase {
     assertEquals(ChangeSet.class, cc.get(0).getClass());
     assertEquals(array(c1, c2), cc.get(0).getChanges());
   }
+
+  @Test
+  public void testIterationStopsAtPurgedChangeSets() {
+    PurgingStorage storage = new PurgingStorage();
+    ChangeList changeList = new ChangeList(storage);
+    LocalHistoryFacade historyFacade = new LocalHistoryFacade(changeList);
+
+    addChangeSet(historyFacade, "1", createFile(r, "file1"));
+    addChangeSet(historyFacade, "2", createFile(r, "file2"));
+    addChangeSet(historyFacade, "3", createFile(r, "file3"));
+
+    Iterator<ChangeSet> it = changeList.iterChanges().iterator();
+    assertEquals("3", it.next().getName());
+
+    // the iterator is positioned at the change set "2" which is purged together with "1"
+    storage.myRecordsToPurge = 2;
+    changeList.purgeObsolete(0);
+
+    assertEquals("2", it.next().getName());
+    assertFalse(it.hasNext());
+    List<ChangeSet> cc = changeList.getChangesInTests();
+    assertEquals(1, cc.size());
+    assertEquals("3", cc.get(0).getName());
+  }
+
+  private static class PurgingStorage extends InMemoryChangeListStorage {
+    private final List<ChangeSet> mySets = new ArrayList<ChangeSet>();
+    private int myRecordsToPurge;
+    private int myPurgedRecords;
+
+    @Override
+    public ChangeSetHolder readPrevious(int id, TIntHashSet recursionGuard) {
+      assertTrue("purged record " + id + " is read", id == -1 || id >= myPurgedRecords);
+      if (id != -1 && id - 1 < myPurgedRecords) return null;
+      return super.readPrevious(id, recursionGuard);
+    }
+
+    @Override
+    public void writeNextSet(ChangeSet changeSet) {
+      super.writeNextSet(changeSet);
+      mySets.add(changeSet);
+    }
+
+    @Override
+    public void purge(long period, int intervalBetweenActivities, Consumer<ChangeSet> processor) {
+      for (int i = myPurgedRecords; i < myRecordsToPurge; i++) {
+        processor.consume(mySets.get(i));
+      }
+      myPurgedRecords = Math.max(myPurgedRecords, myRecordsToPurge);
+    }
+  }
 }
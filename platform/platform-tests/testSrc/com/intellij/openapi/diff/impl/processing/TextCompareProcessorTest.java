@@ -1,11 +1,14 @@
 package com.intellij.openapi.diff.impl.processing;
 
 import com.intellij.openapi.diff.impl.ComparisonPolicy;
+import com.intellij.openapi.diff.impl.fragments.Fragment;
 import com.intellij.openapi.diff.impl.fragments.LineFragment;
+import com.intellij.openapi.diff.impl.highlighting.FragmentSide;
 import com.intellij.util.diff.FilesTooBigForDiffException;
 import junit.framework.TestCase;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 
 public class TextCompareProcessorTest extends TestCase {
   public void testIgnoreWrappingEqualText() throws FilesTooBigForDiffException {
@@ -14,4 +17,34 @@ public class TextCompareProcessorTest extends TestCase {
     assertTrue(lineFragments.size() == 1);
     assertNull(lineFragments.get(0).getType());
   }
+
+  public void testRediffReusesUnchangedBlocks() throws FilesTooBigForDiffException {
+    String text1 = "a b c\nsame\nd e f\nsame\ng h i\n";
+    String text2 = "a x c\nsame\nd y f\nsame\ng z i\n";
+    String edited = "a x c\nsame\nd yy f\nsame\ng z i\n";
+
+    TextCompareProcessor processor = new TextCompareProcessor(ComparisonPolicy.DEFAULT);
+    processor.process(text1, text2);
+    ArrayList<LineFragment> rediffed = processor.process(text1, edited);
+    ArrayList<LineFragment> expected = new TextCompareProcessor(ComparisonPolicy.DEFAULT).process(text1, edited);
+    assertEquals(dump(expected), dump(rediffed));
+  }
+
+  private static String dump(ArrayList<LineFragment> fragments) {
+    StringBuilder builder = new StringBuilder();
+    for (LineFragment fragment : fragments) {
+      dump(fragment, builder);
+    }
+    return builder.toString();
+  }
+
+  private static void dump(Fragment fragment, StringBuilder builder) {
+    builder.append(fragment.getType()).append(' ')
+      .append(fragment.getRange(FragmentSide.SIDE1)).append(' ')
+      .append(fragment.getRange(FragmentSide.SIDE2)).append('\n');
+    Iterator<Fragment> children = fragment instanceof LineFragment ? ((LineFragment)fragment).getChildrenIterator() : null;
+    while (children != null && children.hasNext()) {
+      dump(children.next(), builder);
+    }
+  }
 }
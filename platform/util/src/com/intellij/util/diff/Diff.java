@@ -54,10 +54,20 @@ public class Diff {
     int[] ints2 = enumerator.enumerate(objects2, startShift, endCut);
     Reindexer reindexer = new Reindexer();
     int[][] discarded = reindexer.discardUnique(ints1, ints2);
-    IntLCS intLCS = new IntLCS(discarded[0], discarded[1]);
-    intLCS.execute();
     ChangeBuilder builder = new ChangeBuilder(startShift);
-    reindexer.reindex(intLCS.getPaths(), builder);
+    try {
+      IntLCS intLCS = new IntLCS(discarded[0], discarded[1]);
+      intLCS.execute();
+      reindexer.reindex(intLCS.getPaths(), builder);
+    }
+    catch (FilesTooBigForDiffException e) {
+      // too many changes to keep all the paths in memory, fall back to the slower linear space algorithm;
+      // it is limited in time as well, so callers still get FilesTooBigForDiffException quickly on hopeless inputs
+      MyersLCS lcs = new MyersLCS(discarded[0], discarded[1]);
+      lcs.executeWithThreshold();
+      builder = new ChangeBuilder(startShift);
+      reindexer.reindex(lcs.getChanges(), builder);
+    }
     return builder.getFirstChange();
   }
 
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2000-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.intellij.util.diff;
+
+import java.util.Arrays;
+
+/**
+ * Linear space variation of the Myers' algorithm: finds the 'middle snake' of the shortest edit script and processes
+ * the parts before and after it recursively.
+ * <p/>
+ * Unlike {@link IntLCS} it doesn't keep all the paths explored so far, so it needs only O(N+M) memory. Its running time
+ * is still O((N+M)D) though, so {@link #executeWithThreshold()} gives up with {@link FilesTooBigForDiffException} once
+ * it has made too many steps.
+ */
+class MyersLCS {
+  /**
+   * Number of visited diagonals plus snake steps {@link #executeWithThreshold()} is allowed to make,
+   * it takes about the same time as {@link IntLCS} needs to fill {@link LinkedDiffPaths} up to its limit.
+   */
+  static final long MAX_STEPS = 20000000L;
+
+  private final int[] myFirst;
+  private final int[] mySecond;
+
+  private final boolean[] myChanges1;
+  private final boolean[] myChanges2;
+
+  private final int[] myForward;
+  private final int[] myBackward;
+
+  private long myStepsLeft;
+
+  public MyersLCS(int[] first, int[] second) {
+    myFirst = first;
+    mySecond = second;
+
+    myChanges1 = new boolean[first.length];
+    myChanges2 = new boolean[second.length];
+    Arrays.fill(myChanges1, true);
+    Arrays.fill(myChanges2, true);
+
+    int maxD = (first.length + second.length + 1) / 2;
+    myForward = new int[2 * maxD + 3];
+    myBackward = new int[2 * maxD + 3];
+  }
+
+  public void execute() {
+    try {
+      execute(Long.MAX_VALUE);
+    }
+    catch (FilesTooBigForDiffException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @throws FilesTooBigForDiffException if the sequences have too many changes to be compared in a reasonable time
+   */
+  public void executeWithThreshold() throws FilesTooBigForDiffException {
+    execute(MAX_STEPS);
+  }
+
+  private void execute(long maxSteps) throws FilesTooBigForDiffException {
+    myStepsLeft = maxSteps;
+    execute(0, myFirst.length, 0, mySecond.length);
+  }
+
+  /**
+   * @return changed elements flags for the first and the second sequences
+   */
+  public boolean[][] getChanges() {
+    return new boolean[][]{myChanges1, myChanges2};
+  }
+
+  private void execute(int start1, int end1, int start2, int end2) throws FilesTooBigForDiffException {
+    while (start1 < end1 && start2 < end2 && myFirst[start1] == mySecond[start2]) {
+      myChanges1[start1++] = false;
+      myChanges2[start2++] = false;
+    }
+    while (start1 < end1 && start2 < end2 && myFirst[end1 - 1] == mySecond[end2 - 1]) {
+      myChanges1[--end1] = false;
+      myChanges2[--end2] = false;
+    }
+    if (start1 == end1 || start2 == end2) return;
+
+    int[] snake = findMiddleSnake(start1, end1, start2, end2);
+    int x = snake[0];
+    int y = snake[1];
+    for (int i = 0; i < snake[2] - snake[0]; i++) {
+      myChanges1[x + i] = false;
+      myChanges2[y + i] = false;
+    }
+
+    execute(start1, snake[0], start2, snake[1]);
+    execute(snake[2], end1, snake[3], end2);
+  }
+
+  /**
+   * @return start and end points of the middle snake: <code>{x1, y1, x2, y2}</code>
+   */
+  private int[] findMiddleSnake(int start1, int end1, int start2, int end2) throws FilesTooBigForDiffException {
+    final int n = end1 - start1;
+    final int m = end2 - start2;
+    final int delta = n - m;
+    final boolean odd = (delta & 1) != 0;
+    final int maxD = (n + m + 1) / 2;
+    final int offset = maxD + 1;
+
+    final int[] forward = myForward;
+    final int[] backward = myBackward;
+    forward[offset + 1] = 0;
+    backward[offset + 1] = 0;
+
+    for (int d = 0; d <= maxD; d++) {
+      long steps = 0;
+      for (int k = -d; k <= d; k += 2) {
+        int x = k == -d || k != d && forward[offset + k - 1] < forward[offset + k + 1]
+                ? forward[offset + k + 1]
+                : forward[offset + k - 1] + 1;
+        int y = x - k;
+        int snakeStart = x;
+        while (x < n && y < m && myFirst[start1 + x] == mySecond[start2 + y]) {
+          x++;
+          y++;
+        }
+        steps += x - snakeStart + 1;
+        forward[offset + k] = x;
+
+        int backwardK = delta - k;
+        if (odd && backwardK >= -(d - 1) && backwardK <= d - 1 && x + backward[offset + backwardK] >= n) {
+          return new int[]{start1 + snakeStart, start2 + snakeStart - k, start1 + x, start2 + y};
+        }
+      }
+
+      for (int k = -d; k <= d; k += 2) {
+        int x = k == -d || k != d && backward[offset + k - 1] < backward[offset + k + 1]
+                ? backward[offset + k + 1]
+                : backward[offset + k - 1] + 1;
+        int y = x - k;
+        int snakeStart = x;
+        while (x < n && y < m && myFirst[end1 - 1 - x] == mySecond[end2 - 1 - y]) {
+          x++;
+          y++;
+        }
+        steps += x - snakeStart + 1;
+        backward[offset + k] = x;
+
+        int forwardK = delta - k;
+        if (!odd && forwardK >= -d && forwardK <= d && x + forward[offset + forwardK] >= n) {
+          return new int[]{end1 - x, end2 - y, end1 - snakeStart, end2 - (snakeStart - k)};
+        }
+      }
+
+      myStepsLeft -= steps;
+      if (myStepsLeft < 0) {
+        throw new FilesTooBigForDiffException(myFirst.length + mySecond.length);
+      }
+    }
+    throw new IllegalStateException("Middle snake is not found");
+  }
+}
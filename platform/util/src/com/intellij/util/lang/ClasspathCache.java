@@ -25,7 +25,6 @@ import com.intellij.util.BloomFilterBase;
 import com.intellij.util.SmartList;
 import com.intellij.util.containers.HashMap;
 import gnu.trove.THashMap;
-import gnu.trove.THashSet;
 import gnu.trove.TIntHashSet;
 import gnu.trove.TIntObjectHashMap;
 import org.jetbrains.annotations.Nullable;
@@ -33,7 +32,6 @@ import sun.misc.Resource;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 public class ClasspathCache {
   private static final boolean doDebug = false;
@@ -42,7 +40,8 @@ public class ClasspathCache {
   private final TIntObjectHashMap<Object> myResourcePackagesCache = new TIntObjectHashMap<Object>();
   private final TIntObjectHashMap<Object> myClassPackagesCache = new TIntObjectHashMap<Object>();
 
-  private Map<String, Set<Loader>> myResources2LoadersTempMap = new THashMap<String, Set<Loader>>();
+  // values are either a single Loader or Loader[], as most names are provided by exactly one loader
+  private Map<String, Object> myResources2LoadersTempMap = new THashMap<String, Object>();
   private static final double PROBABILITY = 0.005d;
   private Name2LoaderFilter myNameFilter;
   private boolean myTempMapMode = true;
@@ -111,9 +110,13 @@ public class ClasspathCache {
     name = transformName(name);
     myDebugInfo.addNameEntry(name, loader);
     if (myTempMapMode) {
-      Set<Loader> loaders = myResources2LoadersTempMap.get(name);
-      if (loaders == null) myResources2LoadersTempMap.put(name, loaders = new THashSet<Loader>());
-      boolean added = loaders.add(loader);
+      Object o = myResources2LoadersTempMap.get(name);
+      boolean added = !containsLoader(o, loader);
+      if (added) {
+        myResources2LoadersTempMap.put(name, o == null ? loader :
+                                             o instanceof Loader ? new Loader[]{(Loader)o, loader} :
+                                             ArrayUtil.append((Loader[])o, loader));
+      }
       if (UrlClassLoader.doDebug && added) ++registeredBeforeClose;
     } else {
       if (UrlClassLoader.doDebug) {
@@ -131,8 +134,7 @@ public class ClasspathCache {
     boolean result;
     if (myTempMapMode) {
       ++requests;
-      Set<Loader> loaders = myResources2LoadersTempMap.get(name);
-      result = loaders != null && loaders.contains(loader);
+      result = containsLoader(myResources2LoadersTempMap.get(name), loader);
 
       if (!result) ++hits;
 
@@ -162,8 +164,7 @@ public class ClasspathCache {
           ++diffs2;
         }
 
-        Set<Loader> loaders = myResources2LoadersTempMap.get(name);
-        if (result != (loaders != null && loaders.contains(loader))) {
+        if (result != containsLoader(myResources2LoadersTempMap.get(name), loader)) {
           ++diffs;
         }
 
@@ -184,6 +185,15 @@ public class ClasspathCache {
     return result;
   }
   
+  private static boolean containsLoader(@Nullable Object loaders, Loader loader) {
+    if (loaders == null) return false;
+    if (loaders instanceof Loader) return loaders == loader;
+    for (Loader l : (Loader[])loaders) {
+      if (l == loader) return true;
+    }
+    return false;
+  }
+
   private static String transformName(String name) {
     if (name.endsWith("/")) {
       name = name.substring(0, name.length() - 1);
@@ -229,8 +239,9 @@ public class ClasspathCache {
 
     int nBits = 0;
     int uniques = 0;
-    for(Map.Entry<String, Set<Loader>> e:myResources2LoadersTempMap.entrySet()) {
-      int size = e.getValue().size();
+    for(Map.Entry<String, Object> e:myResources2LoadersTempMap.entrySet()) {
+      Object o = e.getValue();
+      int size = o instanceof Loader ? 1 : ((Loader[])o).length;
       if (size == 1) {
         ++uniques;
       }
@@ -242,10 +253,16 @@ public class ClasspathCache {
 
     myNameFilter = new Name2LoaderFilter(nBits, PROBABILITY);
 
-    for(Map.Entry<String, Set<Loader>> e:myResources2LoadersTempMap.entrySet()) {
+    for(Map.Entry<String, Object> e:myResources2LoadersTempMap.entrySet()) {
       final String name = e.getKey();
-      for(Loader loader: e.getValue()) {
-        myNameFilter.add(name, loader);
+      Object o = e.getValue();
+      if (o instanceof Loader) {
+        myNameFilter.add(name, (Loader)o);
+      }
+      else {
+        for(Loader loader: (Loader[])o) {
+          myNameFilter.add(name, loader);
+        }
       }
     }
 
@@ -19,6 +19,7 @@ import com.intellij.util.ArrayUtil;
 import junit.framework.TestCase;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 /**
  * @author dyoma
@@ -85,4 +86,67 @@ public class DiffTest extends TestCase {
     System.out.println("Duration: " +(System.currentTimeMillis() - start));
   }
 
+  public void testManyChangesFallBackToMyers() throws FilesTooBigForDiffException {
+    Random random = new Random(1);
+    int[] ints1 = generate(random, 3000, 300);
+    int[] ints2 = generate(random, 3000, 300);
+    try {
+      new IntLCS(ints1, ints2).execute();
+      fail("IntLCS is expected to give up, otherwise the fallback is not tested");
+    }
+    catch (FilesTooBigForDiffException ignored) {
+    }
+
+    String[] first = toStrings(ints1);
+    String[] second = toStrings(ints2);
+    checkChanges(first, second, Diff.buildChanges(first, second));
+  }
+
+  public void testTooManyChanges() {
+    Random random = new Random(1);
+    String[] first = toStrings(generate(random, 60000, 300));
+    String[] second = toStrings(generate(random, 60000, 300));
+    try {
+      Diff.buildChanges(first, second);
+      fail("FilesTooBigForDiffException expected");
+    }
+    catch (FilesTooBigForDiffException ignored) {
+    }
+  }
+
+  private static int[] generate(Random random, int length, int range) {
+    int[] result = new int[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = random.nextInt(range);
+    }
+    return result;
+  }
+
+  private static String[] toStrings(int[] ints) {
+    String[] result = new String[ints.length];
+    for (int i = 0; i < ints.length; i++) {
+      result[i] = "line" + ints[i];
+    }
+    return result;
+  }
+
+  private static void checkChanges(Object[] first, Object[] second, Diff.Change change) {
+    int i = 0;
+    int j = 0;
+    int equal = 0;
+    for (; change != null; change = change.link) {
+      assertEquals(change.line0 - i, change.line1 - j);
+      for (; i < change.line0; i++, j++, equal++) {
+        assertEquals(first[i], second[j]);
+      }
+      assertTrue(change.deleted + change.inserted > 0);
+      i += change.deleted;
+      j += change.inserted;
+    }
+    assertEquals(first.length - i, second.length - j);
+    for (; i < first.length; i++, j++, equal++) {
+      assertEquals(first[i], second[j]);
+    }
+    assertTrue(equal > 0);
+  }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2000-2009 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.intellij.util.diff;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+import static com.intellij.util.diff.IntLCSTest.checkChange;
+import static com.intellij.util.diff.IntLCSTest.checkLastChange;
+
+public class MyersLCSTest extends TestCase {
+  public void testDiag() {
+    Diff.Change change = buildChange(new int[]{1, 2, 3}, new int[]{1, 2, 3});
+    assertNull(change);
+  }
+
+  public void testOneAtBegging() {
+    Diff.Change change = buildChange(new int[]{1, 2}, new int[]{1, 3});
+    checkLastChange(change, 1, 1, 1, 1);
+  }
+
+  public void testOneAntEnd() {
+    Diff.Change change = buildChange(new int[]{1, 3}, new int[]{2, 3});
+    checkLastChange(change, 0, 0, 1, 1);
+  }
+
+  public void testOneOverAtEnd() {
+    Diff.Change change = buildChange(new int[]{1, 2}, new int[]{1, 2, 3});
+    checkLastChange(change, 2, 2, 1, 0);
+  }
+
+  public void testOneOverAtBegging() {
+    Diff.Change change = buildChange(new int[]{1, 2, 3}, new int[]{2, 3});
+    checkLastChange(change, 0, 0, 0, 1);
+  }
+
+  public void testSingleMiddle() {
+    Diff.Change change = buildChange(new int[]{1, 2, 3}, new int[]{4, 2, 5});
+    checkChange(change, 0, 0, 1, 1);
+    checkLastChange(change.link, 2, 2, 1, 1);
+  }
+
+  public void testAbsolutelyDifferent() {
+    Diff.Change change = buildChange(new int[]{1, 2, 3}, new int[]{4, 5, 6});
+    checkLastChange(change, 0, 0, 3, 3);
+  }
+
+  public void testSameLengthAsIntLCS() throws FilesTooBigForDiffException {
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      int[] first = generate(random, random.nextInt(30), 5);
+      int[] second = generate(random, random.nextInt(30), 5);
+
+      IntLCS intLCS = new IntLCS(first, second);
+      intLCS.execute();
+      MyersLCS myersLCS = new MyersLCS(first, second);
+      myersLCS.execute();
+
+      assertEquals(countChanges(buildChange(intLCS)), countChanges(buildChange(myersLCS, first.length, second.length)));
+    }
+  }
+
+  public void testManyChanges() {
+    Random random = new Random(42);
+    int[] first = generate(random, 10000, 100);
+    int[] second = generate(random, 10000, 100);
+    MyersLCS lcs = new MyersLCS(first, second);
+    lcs.execute();
+    boolean[][] changes = lcs.getChanges();
+    int equal = 0;
+    for (int i = 0, j = 0; i < first.length; i++) {
+      if (changes[0][i]) continue;
+      while (changes[1][j]) j++;
+      assertEquals(first[i], second[j++]);
+      equal++;
+    }
+    assertTrue(equal > 0);
+  }
+
+  private static int[] generate(Random random, int length, int range) {
+    int[] result = new int[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = random.nextInt(range);
+    }
+    return result;
+  }
+
+  private static int countChanges(Diff.Change change) {
+    int result = 0;
+    for (; change != null; change = change.link) {
+      result += change.inserted + change.deleted;
+    }
+    return result;
+  }
+
+  private static Diff.Change buildChange(int[] first, int[] second) {
+    MyersLCS lcs = new MyersLCS(first, second);
+    lcs.execute();
+    return buildChange(lcs, first.length, second.length);
+  }
+
+  private static Diff.Change buildChange(MyersLCS lcs, int length1, int length2) {
+    Reindexer reindexer = new Reindexer();
+    reindexer.idInit(length1, length2);
+    Diff.ChangeBuilder builder = new Diff.ChangeBuilder(0);
+    reindexer.reindex(lcs.getChanges(), builder);
+    return builder.getFirstChange();
+  }
+
+  private static Diff.Change buildChange(IntLCS lcs) {
+    Reindexer reindexer = new Reindexer();
+    reindexer.idInit(lcs.getPaths().getXSize(), lcs.getPaths().getYSize());
+    Diff.ChangeBuilder builder = new Diff.ChangeBuilder(0);
+    reindexer.reindex(lcs.getPaths(), builder);
+    return builder.getFirstChange();
+  }
+}
@@ -64,6 +64,7 @@ public class ChangesCacheFile {
   @NonNls private static final String INDEX_EXTENSION = ".index";
   private static final int INDEX_ENTRY_SIZE = 3*8+2;
   private static final int HEADER_SIZE = 46;
+  private static final int INDEX_ENTRIES_BUNCH = 100;
 
   public ChangesCacheFile(Project project, File path, AbstractVcs vcs, VirtualFile root, RepositoryLocation location) {
     reset();
@@ -259,12 +260,8 @@ public class ChangesCacheFile {
       return NO_ENTRIES;
     }
     // offset from start
-    myIndexStream.seek(INDEX_ENTRY_SIZE * offsetFromStart);
-    IndexEntry[] result = new IndexEntry[count];
-    for(int i = (count - 1); i >= 0; --i) {
-      result [i] = new IndexEntry();
-      readIndexEntry(result [i]);
-    }
+    IndexEntry[] result = readIndexEntries(INDEX_ENTRY_SIZE * offsetFromStart, count);
+    Collections.reverse(Arrays.asList(result));
     return result;
   }
 
@@ -279,20 +276,32 @@ public class ChangesCacheFile {
     if (count == 0) {
       return NO_ENTRIES;
     }
-    myIndexStream.seek(myIndexStream.length() - INDEX_ENTRY_SIZE * (count + offset));
+    return readIndexEntries(myIndexStream.length() - INDEX_ENTRY_SIZE * (count + offset), count);
+  }
+
+  // reads the entries with a single read call: RandomAccessFile.readLong() and friends read byte by byte
+  private IndexEntry[] readIndexEntries(final long position, final int count) throws IOException {
+    byte[] bytes = new byte[INDEX_ENTRY_SIZE * count];
+    myIndexStream.seek(position);
+    myIndexStream.readFully(bytes);
+    DataInputStream stream = new DataInputStream(new ByteArrayInputStream(bytes));
     IndexEntry[] result = new IndexEntry[count];
     for(int i=0; i<count; i++) {
       result [i] = new IndexEntry();
-      readIndexEntry(result [i]);
+      readIndexEntry(stream, result [i]);
     }
     return result;
   }
 
   private void readIndexEntry(final IndexEntry result) throws IOException {
-    result.number = myIndexStream.readLong();
-    result.date = myIndexStream.readLong();
-    result.offset = myIndexStream.readLong();
-    result.completelyDownloaded = (myIndexStream.readShort() != 0);
+    readIndexEntry(myIndexStream, result);
+  }
+
+  private static void readIndexEntry(final DataInput input, final IndexEntry result) throws IOException {
+    result.number = input.readLong();
+    result.date = input.readLong();
+    result.offset = input.readLong();
+    result.completelyDownloaded = (input.readShort() != 0);
   }
 
   public Date getLastCachedDate() throws IOException {
@@ -475,16 +484,20 @@ public class ChangesCacheFile {
       else {
         int offset = 0;
         while(result.size() < maxCount) {
-          IndexEntry[] entries = readLastIndexEntries(offset, 1);
+          IndexEntry[] entries = readLastIndexEntries(offset, INDEX_ENTRIES_BUNCH);
           if (entries.length == 0) {
             break;
           }
-          CommittedChangeList changeList = loadChangeListAt(entries [0].offset);
-          if (filter.accepts(changeList)) {
-            result.add(0, changeList);
+          for (int i = entries.length - 1; i >= 0 && result.size() < maxCount; i--) {
+            if (!isAcceptedByIndex(settings, entries [i])) continue;
+            CommittedChangeList changeList = loadChangeListAt(entries [i].offset);
+            if (filter.accepts(changeList)) {
+              result.add(changeList);
+            }
           }
-          offset++;
+          offset += entries.length;
         }
+        Collections.reverse(result);
       }
       return result;
     }
@@ -493,6 +506,39 @@ public class ChangesCacheFile {
     }
   }
 
+  /**
+   * Checks the date and number filters against the index entry, so that the change lists which can't pass them are not read at all.
+   */
+  private static boolean isAcceptedByIndex(final ChangeBrowserSettings settings, final IndexEntry entry) {
+    if (settings.USE_DATE_BEFORE_FILTER) {
+      Date dateBefore = settings.getDateBefore();
+      if (dateBefore != null && entry.date >= dateBefore.getTime()) return false;
+    }
+    if (settings.USE_DATE_AFTER_FILTER) {
+      Date dateAfter = settings.getDateAfter();
+      if (dateAfter != null && entry.date <= dateAfter.getTime()) return false;
+    }
+    if (settings.USE_CHANGE_BEFORE_FILTER) {
+      Long numberBefore = parseChangeNumber(settings.CHANGE_BEFORE);
+      if (numberBefore != null && entry.number > numberBefore) return false;
+    }
+    if (settings.USE_CHANGE_AFTER_FILTER) {
+      Long numberAfter = parseChangeNumber(settings.CHANGE_AFTER);
+      if (numberAfter != null && entry.number < numberAfter) return false;
+    }
+    return true;
+  }
+
+  @Nullable
+  private static Long parseChangeNumber(final String number) {
+    try {
+      return Long.parseLong(number);
+    }
+    catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
   public boolean hasCompleteHistory() {
     return myHaveCompleteHistory;
   }
@@ -520,13 +566,15 @@ public class ChangesCacheFile {
     int offset = 0;
     openStreams();
     try {
+      loop:
       while(true) {
-        IndexEntry[] entries = readLastIndexEntries(offset, 1);
+        IndexEntry[] entries = readLastIndexEntries(offset, INDEX_ENTRIES_BUNCH);
         if (entries.length == 0) {
           break;
         }
-        if (!entries [0].completelyDownloaded) {
-          IncomingChangeListData data = readIncomingChangeListData(offset, entries [0]);
+        for (int i = entries.length - 1; i >= 0; i--, offset++) {
+          if (entries [i].completelyDownloaded) continue;
+          IncomingChangeListData data = readIncomingChangeListData(offset, entries [i]);
           if (data.accountedChanges.size() == 0) {
             result.add(data.changeList);
           }
@@ -539,9 +587,8 @@ public class ChangesCacheFile {
             }
             result.add(changeList);
           }
-          if (result.size() == myIncomingCount) break;
+          if (result.size() == myIncomingCount) break loop;
         }
-        offset++;
       }
       debug("Loaded " + result.size() + " incoming changelists");
     }
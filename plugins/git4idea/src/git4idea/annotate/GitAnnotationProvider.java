@@ -45,6 +45,9 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Git annotation provider implementation.
@@ -100,18 +103,34 @@ public class GitAnnotationProvider implements AnnotationProvider, VcsCacheableAn
           if (progress != null) {
             progress.setText(GitBundle.message("getting.history", file.getName()));
           }
-          final List<VcsFileRevision> revisions = GitHistoryUtils.history(myProject, currentFilePath);
-          if (revision == null) {
-            realFilePath = GitHistoryUtils.getLastCommitName(myProject, currentFilePath);
+          // history and blame are independent git processes, both may take long for a file with a long history
+          final Future<List<VcsFileRevision>> revisions = ApplicationManager.getApplication().executeOnPooledThread(
+            new Callable<List<VcsFileRevision>>() {
+              @Override
+              public List<VcsFileRevision> call() throws VcsException {
+                return GitHistoryUtils.history(myProject, currentFilePath);
+              }
+            });
+          try {
+            if (revision == null) {
+              realFilePath = GitHistoryUtils.getLastCommitName(myProject, currentFilePath);
+            }
+            else {
+              realFilePath = ((GitFileRevision)revision).getPath();
+            }
+            if (progress != null) {
+              progress.setText(GitBundle.message("computing.annotation", file.getName()));
+            }
+            final GitFileAnnotation result = annotate(realFilePath, revision, file);
+            result.addLogEntries(revisions.get());
+            annotation[0] = result;
           }
-          else {
-            realFilePath = ((GitFileRevision)revision).getPath();
+          finally {
+            revisions.cancel(true);
           }
-          if (progress != null) {
-            progress.setText(GitBundle.message("computing.annotation", file.getName()));
-          }
-          final GitFileAnnotation result = annotate(realFilePath, revision, revisions, file);
-          annotation[0] = result;
+        }
+        catch (ExecutionException e) {
+          exception[0] = e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
         }
         catch (Exception e) {
           exception[0] = e;
@@ -137,14 +156,12 @@ public class GitAnnotationProvider implements AnnotationProvider, VcsCacheableAn
    *
    * @param repositoryFilePath the file path in the repository
    * @param revision           the revision to checkout
-   * @param revisions          the revision list from history
    * @param file               a virtual file for the action
-   * @return a file annotation object
+   * @return a file annotation object without the log entries
    * @throws VcsException if there is a problem with running git
    */
   private GitFileAnnotation annotate(final FilePath repositoryFilePath,
                                      final VcsFileRevision revision,
-                                     final List<VcsFileRevision> revisions,
                                      final VirtualFile file) throws VcsException {
     GitSimpleHandler h = new GitSimpleHandler(myProject, GitUtil.getGitRoot(repositoryFilePath), GitCommand.BLAME);
     h.setStdoutSuppressed(true);
@@ -208,7 +225,6 @@ public class GitAnnotationProvider implements AnnotationProvider, VcsCacheableAn
       String line = s.line(true);
       annotation.appendLineInfo(commit.date, commit.revision, commit.author, line, lineNum);
     }
-    annotation.addLogEntries(revisions);
     return annotation;
   }
 
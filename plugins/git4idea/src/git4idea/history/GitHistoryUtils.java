@@ -38,6 +38,7 @@ import com.intellij.util.Consumer;
 import com.intellij.util.Function;
 import com.intellij.util.concurrency.Semaphore;
 import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.SLRUMap;
 import git4idea.*;
 import git4idea.branch.GitBranchUtil;
 import git4idea.commands.*;
@@ -57,6 +58,7 @@ import java.nio.charset.Charset;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 
 import static git4idea.history.GitLogParser.GitLogOption.*;
 
@@ -66,6 +68,14 @@ import static git4idea.history.GitLogParser.GitLogOption.*;
 public class GitHistoryUtils {
   private final static Logger LOG = Logger.getInstance("#git4idea.history.GitHistoryUtils");
 
+  private static final Pattern FULL_HASH = Pattern.compile("[0-9a-fA-F]{40}");
+  /**
+   * Results of {@link #getFirstCommitRenamePath}: a commit never changes, so the rename information may be cached forever,
+   * while 'git show -M' on a large commit (e.g. the initial import where most files are added) takes a lot of time.
+   */
+  private static final SLRUMap<Trinity<VirtualFile, String, FilePath>, Ref<FilePath>> ourRenamesCache =
+    new SLRUMap<Trinity<VirtualFile, String, FilePath>, Ref<FilePath>>(100, 100);
+
   private GitHistoryUtils() {
   }
 
@@ -458,6 +468,26 @@ public class GitHistoryUtils {
    */
   @Nullable
   private static FilePath getFirstCommitRenamePath(Project project, VirtualFile root, String commit, FilePath filePath) throws VcsException {
+    if (!FULL_HASH.matcher(commit).matches()) {
+      // a reference (e.g. HEAD when the history is empty) may point to another commit next time
+      return findFirstCommitRenamePath(project, root, commit, filePath);
+    }
+    Trinity<VirtualFile, String, FilePath> key = Trinity.create(root, commit, filePath);
+    synchronized (ourRenamesCache) {
+      Ref<FilePath> cached = ourRenamesCache.get(key);
+      if (cached != null) {
+        return cached.get();
+      }
+    }
+    FilePath renamedFrom = findFirstCommitRenamePath(project, root, commit, filePath);
+    synchronized (ourRenamesCache) {
+      ourRenamesCache.put(key, Ref.create(renamedFrom));
+    }
+    return renamedFrom;
+  }
+
+  @Nullable
+  private static FilePath findFirstCommitRenamePath(Project project, VirtualFile root, String commit, FilePath filePath) throws VcsException {
     // 'git show -M --name-status <commit hash>' returns the information about commit and detects renames.
     // NB: we can't specify the filepath, because then rename detection will work only with the '--follow' option, which we don't wanna use.
     final GitSimpleHandler h = new GitSimpleHandler(project, root, GitCommand.SHOW);
@@ -22,9 +22,11 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vcs.*;
 import com.intellij.openapi.vcs.changes.*;
+import com.intellij.openapi.vcs.history.VcsRevisionNumber;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.PairProcessor;
+import com.intellij.util.concurrency.BoundedTaskExecutor;
 import com.intellij.util.containers.Convertor;
 import git4idea.GitContentRevision;
 import git4idea.GitRevisionNumber;
@@ -34,9 +36,14 @@ import git4idea.changes.GitChangeUtils;
 import git4idea.commands.Git;
 import git4idea.config.GitVersion;
 import git4idea.config.GitVersionSpecialty;
+import git4idea.repo.GitRepository;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.ide.PooledThreadExecutor;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Git repository change provider
@@ -44,6 +51,7 @@ import java.util.*;
 public class GitChangeProvider implements ChangeProvider {
 
   private static final Logger PROFILE_LOG = Logger.getInstance("#GitStatus");
+  private static final int MAX_CONCURRENT_STATUS_COMMANDS = 4;
 
   @NotNull private final Project myProject;
   @NotNull private final Git myGit;
@@ -79,13 +87,7 @@ public class GitChangeProvider implements ChangeProvider {
     try {
       final MyNonChangedHolder holder = new MyNonChangedHolder(myProject, dirtyScope.getDirtyFilesNoExpand(), addGate,
                                                                myFileDocumentManager, myVcsManager);
-      for (VirtualFile root : roots) {
-        debug("checking root: " + root.getPath());
-        GitChangesCollector collector = isNewGitChangeProviderAvailable()
-                                        ? GitNewChangesCollector.collect(myProject, myGit, myChangeListManager, myVcsManager,
-                                                                         vcs, dirtyScope, root)
-                                        : GitOldChangesCollector.collect(myProject, myChangeListManager, myVcsManager,
-                                                                         vcs, dirtyScope, root);
+      for (GitChangesCollector collector : collectChanges(vcs, dirtyScope, roots)) {
         final Collection<Change> changes = collector.getChanges();
         holder.changed(changes);
         for (Change file : changes) {
@@ -106,6 +108,68 @@ public class GitChangeProvider implements ChangeProvider {
     }
   }
 
+  /**
+   * Collects the changes of the given roots. 'git status' commands for different roots are independent,
+   * so for several roots they are executed concurrently, no more than {@link #MAX_CONCURRENT_STATUS_COMMANDS} at a time.
+   */
+  @NotNull
+  private List<GitChangesCollector> collectChanges(@NotNull final GitVcs vcs, @NotNull final VcsDirtyScope dirtyScope,
+                                                   @NotNull Collection<VirtualFile> roots) throws VcsException {
+    final boolean newCollector = isNewGitChangeProviderAvailable();
+    List<GitChangesCollector> collectors = new ArrayList<GitChangesCollector>(roots.size());
+    if (!newCollector || roots.size() < 2) {
+      for (VirtualFile root : roots) {
+        collectors.add(collectChanges(vcs, dirtyScope, root, newCollector));
+      }
+      return collectors;
+    }
+
+    BoundedTaskExecutor executor = new BoundedTaskExecutor(new PooledThreadExecutor(), MAX_CONCURRENT_STATUS_COMMANDS);
+    List<Future<GitChangesCollector>> futures = new ArrayList<Future<GitChangesCollector>>(roots.size());
+    for (final VirtualFile root : roots) {
+      futures.add(executor.submit(new Callable<GitChangesCollector>() {
+        @Override
+        public GitChangesCollector call() throws VcsException {
+          return collectChanges(vcs, dirtyScope, root, true);
+        }
+      }));
+    }
+    try {
+      for (Future<GitChangesCollector> future : futures) {
+        collectors.add(future.get());
+      }
+    }
+    catch (InterruptedException e) {
+      throw new VcsException(e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof VcsException) {
+        throw (VcsException)e.getCause();
+      }
+      throw new VcsException(e.getCause());
+    }
+    finally {
+      for (Future<GitChangesCollector> future : futures) {
+        future.cancel(false);
+      }
+    }
+    return collectors;
+  }
+
+  @NotNull
+  private GitChangesCollector collectChanges(@NotNull GitVcs vcs, @NotNull VcsDirtyScope dirtyScope, @NotNull VirtualFile root,
+                                             boolean newCollector) throws VcsException {
+    debug("checking root: " + root.getPath());
+    long start = System.currentTimeMillis();
+    GitChangesCollector collector = newCollector
+                                    ? GitNewChangesCollector.collect(myProject, myGit, myChangeListManager, myVcsManager,
+                                                                     vcs, dirtyScope, root)
+                                    : GitOldChangesCollector.collect(myProject, myChangeListManager, myVcsManager,
+                                                                     vcs, dirtyScope, root);
+    debug("root " + root.getPath() + " checked in " + (System.currentTimeMillis() - start) + " ms");
+    return collector;
+  }
+
   public static void appendNestedVcsRootsToDirt(final VcsDirtyScope dirtyScope, GitVcs vcs, final ProjectLevelVcsManager vcsManager) {
     final Set<FilePath> recursivelyDirtyDirectories = dirtyScope.getRecursivelyDirtyDirectories();
     if (recursivelyDirtyDirectories.isEmpty()) {
@@ -170,6 +234,7 @@ public class GitChangeProvider implements ChangeProvider {
     private final ChangeListManagerGate myAddGate;
     private FileDocumentManager myFileDocumentManager;
     private ProjectLevelVcsManager myVcsManager;
+    private final Map<VirtualFile, VcsRevisionNumber> myHeads = new HashMap<VirtualFile, VcsRevisionNumber>();
 
     private MyNonChangedHolder(final Project project,
                                final Set<FilePath> dirty,
@@ -203,6 +268,28 @@ public class GitChangeProvider implements ChangeProvider {
       myDirty.remove(new FilePathImpl(vf));
     }
 
+    /**
+     * Reads HEAD of the root from the {@link GitRepository} (which reads it from the .git directory) instead of running
+     * 'git rev-list' for each modified document. The repository is force updated once per root, as in
+     * {@link GitNewChangesCollector}. Falls back to git if the repository is not initialized yet.
+     */
+    @NotNull
+    private VcsRevisionNumber getHead(@NotNull VirtualFile root) throws VcsException {
+      VcsRevisionNumber head = myHeads.get(root);
+      if (head == null) {
+        GitRepository repository = GitUtil.getRepositoryManager(myProject).getRepositoryForRoot(root);
+        String currentRevision = null;
+        if (repository != null) {
+          // the GitRepository is updated asynchronously, so right after a commit or checkout it may still hold the old HEAD
+          repository.update();
+          currentRevision = repository.getCurrentRevision();
+        }
+        head = currentRevision != null ? new GitRevisionNumber(currentRevision) : GitChangeUtils.resolveReference(myProject, root, "HEAD");
+        myHeads.put(root, head);
+      }
+      return head;
+    }
+
     public void feedBuilder(final ChangelistBuilder builder) throws VcsException {
       final VcsKey gitKey = GitVcs.getKey();
 
@@ -212,7 +299,7 @@ public class GitChangeProvider implements ChangeProvider {
           if ((myAddGate.getStatus(vf) == null) && myFileDocumentManager.isFileModified(vf)) {
             final VirtualFile root = myVcsManager.getVcsRootFor(vf);
             if (root != null) {
-              final GitRevisionNumber beforeRevisionNumber = GitChangeUtils.resolveReference(myProject, root, "HEAD");
+              final VcsRevisionNumber beforeRevisionNumber = getHead(root);
               builder.processChange(new Change(GitContentRevision.createRevision(vf, beforeRevisionNumber, myProject),
                                                GitContentRevision.createRevision(vf, null, myProject), FileStatus.MODIFIED), gitKey);
             }
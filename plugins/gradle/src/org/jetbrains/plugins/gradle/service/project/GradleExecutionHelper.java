@@ -19,7 +19,10 @@ import com.intellij.openapi.externalSystem.model.ExternalSystemException;
 import com.intellij.openapi.externalSystem.model.task.ExternalSystemTaskId;
 import com.intellij.openapi.externalSystem.model.task.ExternalSystemTaskNotificationEvent;
 import com.intellij.openapi.externalSystem.model.task.ExternalSystemTaskNotificationListener;
+import com.intellij.openapi.util.ShutDownTracker;
+import com.intellij.util.ConcurrencyUtil;
 import com.intellij.util.Function;
+import com.intellij.util.containers.ContainerUtilRt;
 import org.gradle.tooling.*;
 import org.gradle.tooling.internal.consumer.DefaultGradleConnector;
 import org.gradle.tooling.model.idea.BasicIdeaProject;
@@ -28,9 +31,12 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.gradle.settings.GradleExecutionSettings;
 import org.jetbrains.plugins.gradle.util.GradleBundle;
+import org.jetbrains.plugins.gradle.util.GradleUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -39,6 +45,23 @@ import java.util.concurrent.TimeUnit;
  */
 public class GradleExecutionHelper {
 
+  /**
+   * Cached connections which are not used during this time are closed in order to release daemon and tooling api resources.
+   */
+  private static final long CONNECTION_IDLE_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
+  private static final ScheduledExecutorService ourCleaner = ConcurrencyUtil.newSingleScheduledThreadExecutor("Gradle connections cleaner");
+
+  /**
+   * Tooling api connections are thread-safe and relatively expensive to establish, so they are reused between requests
+   * for the same project directory and connector configuration. Holds 'connection key -> connection' mappings.
+   * <p/>
+   * All access is guarded by the map itself.
+   */
+  private final Map<String, CachedConnection> myConnections = ContainerUtilRt.newHashMap();
+  private boolean myCleanupScheduled;
+  private boolean myShutdownTaskRegistered;
+
   @NotNull
   public ModelBuilder<? extends IdeaProject> getModelBuilder(@NotNull final ExternalSystemTaskId id,
                                                              @Nullable GradleExecutionSettings settings,
@@ -103,23 +126,172 @@ public class GradleExecutionHelper {
   }
 
   public <T> T execute(@NotNull String projectPath, @Nullable GradleExecutionSettings settings, @NotNull Function<ProjectConnection, T> f) {
-    ProjectConnection connection = getConnection(projectPath, settings);
+    CachedConnection connection = acquireConnection(projectPath, settings);
+    boolean broken = false;
     try {
-      return f.fun(connection);
+      return f.fun(connection.connection);
     }
     catch (Throwable e) {
+      // The connection might be broken (e.g. the daemon has died), so don't reuse it.
+      broken = true;
       throw new ExternalSystemException(e);
     }
     finally {
+      releaseConnection(connection, broken);
+    }
+  }
+
+  /**
+   * Closes all cached connections. Connections which are in use at the moment are closed as soon as they are released.
+   */
+  public void closeConnections() {
+    List<CachedConnection> toClose = ContainerUtilRt.newArrayList();
+    synchronized (myConnections) {
+      for (CachedConnection connection : myConnections.values()) {
+        connection.obsolete = true;
+        if (connection.usages == 0) {
+          toClose.add(connection);
+        }
+      }
+      myConnections.clear();
+    }
+    close(toClose);
+  }
+
+  @NotNull
+  private CachedConnection acquireConnection(@NotNull String projectPath, @Nullable GradleExecutionSettings settings) {
+    String key = getConnectionKey(projectPath, settings);
+    List<CachedConnection> toClose = ContainerUtilRt.newArrayList();
+    try {
+      synchronized (myConnections) {
+        // Connections for the same project created with a previous configuration (e.g. wrapper distribution) are not needed anymore.
+        String keyPrefix = getProjectKeyPrefix(projectPath);
+        for (Iterator<Map.Entry<String, CachedConnection>> it = myConnections.entrySet().iterator(); it.hasNext(); ) {
+          Map.Entry<String, CachedConnection> entry = it.next();
+          if (!entry.getKey().equals(key) && entry.getKey().startsWith(keyPrefix)) {
+            it.remove();
+            entry.getValue().obsolete = true;
+            if (entry.getValue().usages == 0) {
+              toClose.add(entry.getValue());
+            }
+          }
+        }
+
+        CachedConnection result = myConnections.get(key);
+        if (result == null) {
+          result = new CachedConnection(getConnection(projectPath, settings));
+          myConnections.put(key, result);
+          if (!myShutdownTaskRegistered) {
+            myShutdownTaskRegistered = true;
+            ShutDownTracker.getInstance().registerShutdownTask(new Runnable() {
+              @Override
+              public void run() {
+                closeConnections();
+              }
+            });
+          }
+        }
+        result.usages++;
+        return result;
+      }
+    }
+    finally {
+      close(toClose);
+    }
+  }
+
+  private void releaseConnection(@NotNull CachedConnection connection, boolean broken) {
+    boolean close;
+    synchronized (myConnections) {
+      connection.usages--;
+      connection.lastUsageTime = System.currentTimeMillis();
+      if (broken && !connection.obsolete) {
+        connection.obsolete = true;
+        myConnections.values().remove(connection);
+      }
+      close = connection.obsolete && connection.usages == 0;
+      if (!close) {
+        scheduleCleanup();
+      }
+    }
+    if (close) {
+      close(Collections.singletonList(connection));
+    }
+  }
+
+  private void scheduleCleanup() {
+    assert Thread.holdsLock(myConnections);
+    if (myCleanupScheduled || myConnections.isEmpty()) {
+      return;
+    }
+    myCleanupScheduled = true;
+    ourCleaner.schedule(new Runnable() {
+      @Override
+      public void run() {
+        closeIdleConnections();
+      }
+    }, CONNECTION_IDLE_TTL_MS, TimeUnit.MILLISECONDS);
+  }
+
+  private void closeIdleConnections() {
+    List<CachedConnection> toClose = ContainerUtilRt.newArrayList();
+    synchronized (myConnections) {
+      myCleanupScheduled = false;
+      long now = System.currentTimeMillis();
+      for (Iterator<CachedConnection> it = myConnections.values().iterator(); it.hasNext(); ) {
+        CachedConnection connection = it.next();
+        if (connection.usages == 0 && now - connection.lastUsageTime >= CONNECTION_IDLE_TTL_MS) {
+          it.remove();
+          connection.obsolete = true;
+          toClose.add(connection);
+        }
+      }
+      scheduleCleanup();
+    }
+    close(toClose);
+  }
+
+  private static void close(@NotNull Collection<CachedConnection> connections) {
+    for (CachedConnection connection : connections) {
       try {
-        connection.close();
+        connection.connection.close();
       }
       catch (Throwable e) {
         // ignore
       }
     }
   }
-  
+
+  @NotNull
+  private static String getProjectKeyPrefix(@NotNull String projectPath) {
+    return new File(projectPath).getParentFile() + "|";
+  }
+
+  /**
+   * @return    key which identifies connections created by {@link #getConnection(String, GradleExecutionSettings)} for the given
+   *            arguments, i.e. connections with equal keys are interchangeable. Wrapper configuration is a part of the key
+   *            as a connection keeps the distribution which was resolved when it was created
+   */
+  @NotNull
+  static String getConnectionKey(@NotNull String projectPath, @Nullable GradleExecutionSettings settings) {
+    StringBuilder result = new StringBuilder(getProjectKeyPrefix(projectPath));
+    if (settings == null || settings.isUseWrapper() || settings.getGradleHome() == null) {
+      File wrapperProperties = GradleUtil.findWrapperPropertiesFile(projectPath);
+      if (wrapperProperties != null) {
+        result.append(GradleUtil.getWrapperDistributionUrl(wrapperProperties)).append('|').append(wrapperProperties.lastModified());
+      }
+    }
+    else {
+      result.append(settings.getGradleHome());
+    }
+    if (settings != null) {
+      result.append('|').append(settings.getServiceDirectory());
+      result.append('|').append(settings.isVerboseProcessing());
+      result.append('|').append(settings.getRemoteProcessIdleTtlInMs());
+    }
+    return result.toString();
+  }
+
   /**
    * Allows to retrieve gradle api connection to use for the given project.
    *
@@ -177,4 +349,17 @@ public class GradleExecutionHelper {
     }
     return connection;
   }
+
+  private static class CachedConnection {
+    @NotNull final ProjectConnection connection;
+
+    // guarded by GradleExecutionHelper.myConnections
+    int     usages;
+    long    lastUsageTime;
+    boolean obsolete;
+
+    CachedConnection(@NotNull ProjectConnection connection) {
+      this.connection = connection;
+    }
+  }
 }
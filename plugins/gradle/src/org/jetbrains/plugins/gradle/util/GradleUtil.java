@@ -65,6 +65,27 @@ public class GradleUtil {
    */
   @Nullable
   public static String getWrapperDistribution(@Nullable String gradleProjectPath) {
+    File propertiesFile = findWrapperPropertiesFile(gradleProjectPath);
+    if (propertiesFile == null) {
+      return null;
+    }
+    String distribution = getWrapperDistributionUrl(propertiesFile);
+    if (StringUtil.isEmpty(distribution)) {
+      return null;
+    }
+    String shortName = StringUtil.getShortName(distribution, '/');
+    return StringUtil.trimEnd(shortName, ".zip");
+  }
+
+  /**
+   * Tries to find gradle wrapper properties file for the gradle project located at the given path.
+   *
+   * @param gradleProjectPath  target gradle project path
+   * @return                   wrapper properties file of the gradle project located at the given path if any;
+   *                           <code>null</code> otherwise
+   */
+  @Nullable
+  public static File findWrapperPropertiesFile(@Nullable String gradleProjectPath) {
     if (gradleProjectPath == null) {
       return null;
     }
@@ -100,23 +121,27 @@ public class GradleUtil {
       ));
       return null;
     }
+    return candidates[0];
+  }
 
+  /**
+   * @param wrapperPropertiesFile  gradle wrapper properties file
+   * @return                       distribution url configured at the given wrapper properties file if any;
+   *                               <code>null</code> otherwise
+   */
+  @Nullable
+  public static String getWrapperDistributionUrl(@NotNull File wrapperPropertiesFile) {
     Properties props = new Properties();
     BufferedReader reader = null;
     try {
       //noinspection IOResourceOpenedButNotSafelyClosed
-      reader = new BufferedReader(new FileReader(candidates[0]));
+      reader = new BufferedReader(new FileReader(wrapperPropertiesFile));
       props.load(reader);
-      String distribution = props.getProperty(WRAPPER_VERSION_PROPERTY_KEY);
-      if (StringUtil.isEmpty(distribution)) {
-        return null;
-      }
-      String shortName = StringUtil.getShortName(distribution, '/');
-      return StringUtil.trimEnd(shortName, ".zip");
+      return props.getProperty(WRAPPER_VERSION_PROPERTY_KEY);
     }
     catch (IOException e) {
       GradleLog.LOG.warn(
-        String.format("I/O exception on reading gradle wrapper properties file at '%s'", candidates[0].getAbsolutePath()),
+        String.format("I/O exception on reading gradle wrapper properties file at '%s'", wrapperPropertiesFile.getAbsolutePath()),
         e
       );
     }
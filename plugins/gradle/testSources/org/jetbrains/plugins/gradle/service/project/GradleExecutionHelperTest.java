@@ -0,0 +1,103 @@
+/*
+ * Copyright 2000-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jetbrains.plugins.gradle.service.project;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.util.Function;
+import org.gradle.tooling.ProjectConnection;
+import org.jetbrains.plugins.gradle.settings.GradleExecutionSettings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class GradleExecutionHelperTest {
+
+  private static final Function<ProjectConnection, ProjectConnection> GET_CONNECTION =
+    new Function<ProjectConnection, ProjectConnection>() {
+      @Override
+      public ProjectConnection fun(ProjectConnection connection) {
+        return connection;
+      }
+    };
+
+  private GradleExecutionHelper myHelper;
+  private File myProjectDir;
+  private String myProjectPath;
+
+  @Before
+  public void setUp() throws IOException {
+    myHelper = new GradleExecutionHelper();
+    myProjectDir = FileUtil.createTempDirectory("gradle", "project");
+    File buildScript = new File(myProjectDir, "build.gradle");
+    FileUtil.writeToFile(buildScript, "");
+    myProjectPath = buildScript.getPath();
+  }
+
+  @After
+  public void tearDown() {
+    myHelper.closeConnections();
+    FileUtil.delete(myProjectDir);
+  }
+
+  @Test
+  public void connectionIsReused() {
+    GradleExecutionSettings settings = new GradleExecutionSettings(null, null, true);
+    ProjectConnection connection = myHelper.execute(myProjectPath, settings, GET_CONNECTION);
+    assertSame(connection, myHelper.execute(myProjectPath, settings, GET_CONNECTION));
+  }
+
+  @Test
+  public void changedWrapperDistributionGivesNewConnection() throws IOException {
+    GradleExecutionSettings settings = new GradleExecutionSettings(null, null, true);
+    File wrapperProperties = new File(myProjectDir, "gradle/wrapper/gradle-wrapper.properties");
+    writeWrapperProperties(wrapperProperties, "gradle-1.5-bin.zip", 10000);
+    String key = GradleExecutionHelper.getConnectionKey(myProjectPath, settings);
+    ProjectConnection connection = myHelper.execute(myProjectPath, settings, GET_CONNECTION);
+
+    writeWrapperProperties(wrapperProperties, "gradle-1.6-bin.zip", 20000);
+    assertFalse(key.equals(GradleExecutionHelper.getConnectionKey(myProjectPath, settings)));
+    assertNotSame(connection, myHelper.execute(myProjectPath, settings, GET_CONNECTION));
+  }
+
+  @Test
+  public void brokenConnectionIsNotReused() {
+    GradleExecutionSettings settings = new GradleExecutionSettings(null, null, true);
+    final ProjectConnection[] connection = new ProjectConnection[1];
+    try {
+      myHelper.execute(myProjectPath, settings, new Function<ProjectConnection, Object>() {
+        @Override
+        public Object fun(ProjectConnection c) {
+          connection[0] = c;
+          throw new IllegalStateException();
+        }
+      });
+      fail();
+    }
+    catch (Exception ignored) {
+    }
+    assertNotSame(connection[0], myHelper.execute(myProjectPath, settings, GET_CONNECTION));
+  }
+
+  private static void writeWrapperProperties(File file, String distribution, long lastModified) throws IOException {
+    FileUtil.writeToFile(file, "distributionUrl=http\\://services.gradle.org/distributions/" + distribution + "\n");
+    assertTrue(file.setLastModified(lastModified));
+  }
+}
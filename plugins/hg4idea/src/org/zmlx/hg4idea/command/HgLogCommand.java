@@ -13,6 +13,7 @@
 package org.zmlx.hg4idea.command;
 
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vcs.FilePath;
@@ -56,7 +57,7 @@ public class HgLogCommand {
   private static final int FILES_DELETED_INDEX = 9;
   private static final int FILES_COPIED_INDEX = 10;
 
-  private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss Z");
+  private static final String DATE_PATTERN = "yyyy-MM-dd HH:mm:ss Z";
 
   @NotNull private final Project myProject;
 
@@ -103,7 +104,7 @@ public class HgLogCommand {
     HgFile originalHgFile = new HgFile(hgFile.getRepo(), originalFileName);
     HgCommandResult result = execute(hgFile.getRepo(), template, limit, originalHgFile, argsForCmd);
 
-    final List<HgFileRevision> revisions = new LinkedList<HgFileRevision>();
+    final List<HgFileRevision> revisions = new ArrayList<HgFileRevision>();
     if (result == null) {
       return revisions;
     }
@@ -112,9 +113,20 @@ public class HgLogCommand {
     if (errors != null && !errors.isEmpty()) {
       throw new HgCommandException(errors.toString());
     }
+    // SimpleDateFormat is not thread-safe, and the log may be requested from several threads at once
+    SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_PATTERN);
+    // walk the output changeset by changeset instead of splitting it all at once: for a long history this keeps just one
+    // changeset string alive besides the output itself, and lets a cancelled request stop in the middle
     String output = result.getRawOutput();
-    String[] changeSets = output.split(HgChangesetUtil.CHANGESET_SEPARATOR);
-    for (String line : changeSets) {
+    int start = 0;
+    while (start < output.length()) {
+      ProgressManager.checkCanceled();
+      int end = output.indexOf(HgChangesetUtil.CHANGESET_SEPARATOR, start);
+      if (end < 0) {
+        end = output.length();
+      }
+      String line = output.substring(start, end);
+      start = end + HgChangesetUtil.CHANGESET_SEPARATOR.length();
       try {
         String[] attributes = line.split(HgChangesetUtil.ITEM_SEPARATOR);
         // At least in the case of the long template, it's OK that we don't have everything...for example, if there were no
@@ -152,7 +164,7 @@ public class HgLogCommand {
         }
         final HgRevisionNumber vcsRevisionNumber = HgRevisionNumber.getInstance(revisionString, changeset, parents);
 
-        Date revisionDate = DATE_FORMAT.parse(attributes[DATE_INDEX]);
+        Date revisionDate = dateFormat.parse(attributes[DATE_INDEX]);
         String author = attributes[AUTHOR_INDEX];
         String branchName = attributes[BRANCH_INDEX];
         String commitMessage = attributes[MESSAGE_INDEX];
@@ -390,6 +390,7 @@ public class MavenIndex {
 
       persist(groupToArtifactMap, data.groupToArtifactMap);
       persist(groupWithArtifactToVersionMap, data.groupWithArtifactToVersionMap);
+      data.groupIds = Collections.unmodifiableSet(new THashSet<String>(groupToArtifactMap.keySet()));
     }
     finally {
       progress.popState();
@@ -440,6 +441,7 @@ public class MavenIndex {
         String version = id.getVersion();
 
         myData.hasGroupCache.put(groupId, true);
+        myData.addGroupId(groupId);
 
         String groupWithArtifact = groupId + ":" + artifactId;
 
@@ -465,7 +467,7 @@ public class MavenIndex {
   public synchronized Collection<String> getGroupIds() {
     return doIndexTask(new IndexTask<Collection<String>>() {
       public Collection<String> doTask() throws Exception {
-        return myData.groupToArtifactMap.getAllDataObjects(null);
+        return myData.getGroupIds();
       }
     }, Collections.<String>emptySet());
   }
@@ -598,6 +600,9 @@ public class MavenIndex {
     final Map<String, Boolean> hasArtifactCache = new THashMap<String, Boolean>();
     final Map<String, Boolean> hasVersionCache = new THashMap<String, Boolean>();
 
+    // enumerating all the keys of a central-sized map is expensive, so the group ids are read once and kept up to date
+    private Set<String> groupIds;
+
     private final int indexId;
 
     public IndexData(File dir) throws MavenIndexException {
@@ -653,6 +658,22 @@ public class MavenIndex {
       groupWithArtifactToVersionMap.force();
     }
 
+    public Set<String> getGroupIds() throws IOException {
+      if (groupIds == null) {
+        groupIds = Collections.unmodifiableSet(new THashSet<String>(groupToArtifactMap.getAllDataObjects(null)));
+      }
+      return groupIds;
+    }
+
+    public void addGroupId(String groupId) {
+      if (groupIds == null || groupIds.contains(groupId)) return;
+
+      // the set may have been returned to clients already, so it is copied rather than modified in place
+      Set<String> newGroupIds = new THashSet<String>(groupIds);
+      newGroupIds.add(groupId);
+      groupIds = Collections.unmodifiableSet(newGroupIds);
+    }
+
     public MavenId addArtifact(File artifactFile) throws MavenServerIndexerException {
       return myIndexer.addArtifact(indexId, artifactFile);
     }
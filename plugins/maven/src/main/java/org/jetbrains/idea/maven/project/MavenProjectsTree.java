@@ -70,6 +70,8 @@ public class MavenProjectsTree {
 
   private final Map<MavenProject, MavenProjectTimestamp> myTimestamps = new HashMap<MavenProject, MavenProjectTimestamp>();
   private final MavenWorkspaceMap myWorkspaceMap = new MavenWorkspaceMap();
+  // immutable copy of myWorkspaceMap shared by all resolve requests until the next id maps change
+  private volatile MavenWorkspaceMap myWorkspaceMapSnapshot;
   private final Map<MavenId, MavenProject> myMavenIdToProjectMapping = new HashMap<MavenId, MavenProject>();
   private final Map<VirtualFile, MavenProject> myVirtualFileToProjectMapping = new HashMap<VirtualFile, MavenProject>();
   private final Map<MavenProject, List<MavenProject>> myAggregatorToModuleMapping = new HashMap<MavenProject, List<MavenProject>>();
@@ -772,12 +774,14 @@ public class MavenProjectsTree {
   private void fillIDMaps(MavenProject mavenProject) {
     MavenId id = mavenProject.getMavenId();
     myWorkspaceMap.register(id, new File(mavenProject.getFile().getPath()));
+    myWorkspaceMapSnapshot = null;
     myMavenIdToProjectMapping.put(id, mavenProject);
   }
 
   private void clearIDMaps(MavenProject mavenProject) {
     MavenId id = mavenProject.getMavenId();
     myWorkspaceMap.unregister(id);
+    myWorkspaceMapSnapshot = null;
     myMavenIdToProjectMapping.remove(id);
   }
 
@@ -1011,9 +1015,15 @@ public class MavenProjectsTree {
   }
 
   private MavenWorkspaceMap getWorkspaceMap() {
+    MavenWorkspaceMap snapshot = myWorkspaceMapSnapshot;
+    if (snapshot != null) return snapshot;
+
     readLock();
     try {
-      return myWorkspaceMap.copy();
+      // assigned under the lock so that a concurrent clearIDMaps/fillIDMaps can't be overwritten with a stale copy
+      snapshot = myWorkspaceMap.copy();
+      myWorkspaceMapSnapshot = snapshot;
+      return snapshot;
     }
     finally {
       readUnlock();
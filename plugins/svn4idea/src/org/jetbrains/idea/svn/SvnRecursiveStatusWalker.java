@@ -308,10 +308,12 @@ public class SvnRecursiveStatusWalker {
     }
   }
 
-  private VirtualFile getVirtualFile(File ioFile) {
+  @Nullable
+  private static VirtualFile getVirtualFile(File ioFile) {
     final LocalFileSystem lfs = LocalFileSystem.getInstance();
     VirtualFile vFile = lfs.findFileByIoFile(ioFile);
-    if (vFile == null) {
+    // missing and deleted files are reported too; refreshing them would touch every path element on disk just to get null
+    if (vFile == null && ioFile.exists()) {
       vFile = lfs.refreshAndFindFileByIoFile(ioFile);
     }
     return vFile;